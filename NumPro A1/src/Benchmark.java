@@ -0,0 +1,75 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Einfache Messumgebung fuer die Benchmark_-Klassen. Jede Aufgabe wird
+ * zunaechst einige Male zum Aufwaermen des JIT ausgefuehrt und dann mehrfach
+ * gemessen. Ausgegeben werden die mittlere und die beste Zeit pro Operation
+ * sowie die pro Operation angelegten Bytes (falls die JVM das misst).
+ *
+ * Das Ergebnis jeder Ausfuehrung wird in eine volatile Variable geschrieben,
+ * damit der JIT die Berechnung nicht wegoptimieren kann.
+ */
+public class Benchmark {
+
+	/** Eine zu messende Aufgabe; das Ergebnis verhindert Dead-Code-Elimination */
+	public interface Aufgabe {
+		double ausfuehren();
+	}
+
+	/** Anzahl der Ausfuehrungen zum Aufwaermen und zum Messen */
+	public static int aufwaermen = 5;
+	public static int messungen = 10;
+
+	/* Senke fuer die Ergebnisse der Aufgaben */
+	private static volatile double senke;
+
+	/**
+	 * misst die Aufgabe aufgabe, die bei jeder Ausfuehrung operationen
+	 * Operationen ausfuehrt, und gibt das Ergebnis unter dem Namen name aus
+	 */
+	public static void messen(String name, long operationen, Aufgabe aufgabe) {
+		messen(name, operationen, aufwaermen, aufgabe);
+	}
+
+	/**
+	 * wie messen(name, operationen, aufgabe), aber mit aufwaermen
+	 * Ausfuehrungen zum Aufwaermen, z.B. fuer Code, den erst C2 schnell
+	 * uebersetzt
+	 */
+	public static void messen(String name, long operationen, int aufwaermen,
+			Aufgabe aufgabe) {
+		for (int i = 0; i < aufwaermen; i++)
+			senke = aufgabe.ausfuehren();
+
+		long bytesVorher = allokiert();
+		double summe = 0;
+		double beste = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < messungen; i++) {
+			long start = System.nanoTime();
+			senke = aufgabe.ausfuehren();
+			double nsProOp = (double) (System.nanoTime() - start) / operationen;
+			summe += nsProOp;
+			beste = Math.min(beste, nsProOp);
+		}
+		long bytesNachher = allokiert();
+
+		String allokation = (bytesVorher < 0) ? "n/a" : String.format("%.2f",
+				(double) (bytesNachher - bytesVorher)
+						/ ((double) operationen * messungen));
+		System.out.println(String.format(
+				"%-48s %10.3f ns/op (beste %9.3f)  %8s B/op", name, summe
+						/ messungen, beste, allokation));
+	}
+
+	/* Liefert die bisher vom aktuellen Thread angelegten Bytes oder -1 */
+	private static long allokiert() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean b = (com.sun.management.ThreadMXBean) bean;
+			if (b.isThreadAllocatedMemorySupported())
+				return b.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,112 @@
+import java.util.Random;
+
+/**
+ * Vergleicht den fast inverse square root Algorithmus direkt auf IEEE-754
+ * float und double (FastMath.invSqrt(float, int), FastMath.invSqrt(double,
+ * int)) mit 1 / Math.sqrt und 1 / StrictMath.sqrt, jeweils fuer einzelne
+ * Werte und ueber Felder. Zusaetzlich wird der maximale relative Fehler der
+ * schnellen Varianten ausgegeben.
+ */
+public class Benchmark_FastInverse {
+
+	private static final int N = 1 << 16;
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		final float[] xf = new float[N];
+		final double[] xd = new double[N];
+		for (int i = 0; i < N; i++) {
+			xd[i] = Math.scalb(1 + random.nextDouble(), random.nextInt(40) - 20);
+			xf[i] = (float) xd[i];
+		}
+		final float[] yf = new float[N];
+		final double[] yd = new double[N];
+
+		System.out.println("Maximaler relativer Fehler");
+		for (int k = 0; k <= 3; k++) {
+			double maxF = 0, maxD = 0;
+			for (int i = 0; i < N; i++) {
+				maxF = Math.max(maxF, Math.abs(FastMath.invSqrt(xf[i], k)
+						* Math.sqrt(xf[i]) - 1));
+				maxD = Math.max(maxD, Math.abs(FastMath.invSqrt(xd[i], k)
+						* Math.sqrt(xd[i]) - 1));
+			}
+			System.out.println(String.format(
+					"    %d Newton-Schritte: float %.3e, double %.3e", k, maxF,
+					maxD));
+		}
+
+		System.out.println("\nEinzelne Werte (Summe ueber " + N + " Werte)");
+		Benchmark.messen("float  1 / (float) Math.sqrt", N, () -> {
+			float s = 0;
+			for (int i = 0; i < N; i++)
+				s += 1 / (float) Math.sqrt(xf[i]);
+			return s;
+		});
+		for (int k = 0; k <= 2; k++) {
+			final int schritte = k;
+			Benchmark.messen("float  FastMath.invSqrt, " + k + " Newton", N,
+					() -> {
+						float s = 0;
+						for (int i = 0; i < N; i++)
+							s += FastMath.invSqrt(xf[i], schritte);
+						return s;
+					});
+		}
+		Benchmark.messen("double 1 / Math.sqrt", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += 1 / Math.sqrt(xd[i]);
+			return s;
+		});
+		Benchmark.messen("double 1 / StrictMath.sqrt", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += 1 / StrictMath.sqrt(xd[i]);
+			return s;
+		});
+		for (int k = 0; k <= 3; k++) {
+			final int schritte = k;
+			Benchmark.messen("double FastMath.invSqrt, " + k + " Newton", N,
+					() -> {
+						double s = 0;
+						for (int i = 0; i < N; i++)
+							s += FastMath.invSqrt(xd[i], schritte);
+						return s;
+					});
+		}
+
+		System.out.println("\nFelder (" + N + " Werte)");
+		Benchmark.messen("float[]  1 / (float) Math.sqrt", N, () -> {
+			for (int i = 0; i < N; i++)
+				yf[i] = 1 / (float) Math.sqrt(xf[i]);
+			return yf[N - 1];
+		});
+		for (int k = 0; k <= 2; k++) {
+			final int schritte = k;
+			Benchmark.messen("float[]  FastMath.invSqrt, " + k + " Newton", N,
+					() -> {
+						FastMath.invSqrt(xf, yf, 0, N, schritte);
+						return yf[N - 1];
+					});
+		}
+		Benchmark.messen("double[] 1 / Math.sqrt", N, () -> {
+			for (int i = 0; i < N; i++)
+				yd[i] = 1 / Math.sqrt(xd[i]);
+			return yd[N - 1];
+		});
+		Benchmark.messen("double[] 1 / StrictMath.sqrt", N, () -> {
+			for (int i = 0; i < N; i++)
+				yd[i] = 1 / StrictMath.sqrt(xd[i]);
+			return yd[N - 1];
+		});
+		for (int k = 0; k <= 3; k++) {
+			final int schritte = k;
+			Benchmark.messen("double[] FastMath.invSqrt, " + k + " Newton", N,
+					() -> {
+						FastMath.invSqrt(xd, yd, 0, N, schritte);
+						return yd[N - 1];
+					});
+		}
+	}
+}
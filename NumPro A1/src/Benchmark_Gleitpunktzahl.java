@@ -0,0 +1,207 @@
+import java.util.Random;
+
+/**
+ * Misst die wichtigsten Operationen von Gleitpunktzahl und FastMath fuer
+ * mehrere Formate: Konstruktion aus double, toDouble, add, sub, normalisiere,
+ * FastMath.invSqrt, gleitpunktzahlToIEEE und iEEEToGleitpunktzahl, jeweils
+ * ueber die Objekt-API und (soweit vorhanden) ueber die gepackten Kerne. Die
+ * Messumgebung ist Benchmark; sie gibt auch die pro Operation angelegten
+ * Bytes aus. Die Stapelkerne aus Gleitpunktstapel werden auf denselben
+ * Feldern gemessen wie die Einzelkerne. Fuer das Format 4/8 werden
+ * zusaetzlich die Kerne der von Gleitpunktgenerator erzeugten Klasse
+ * Gleitpunkt_E4M8 gemessen.
+ *
+ * Aufruf: java Benchmark_Gleitpunktzahl [e/m ...] (Standard: 4/8 8/24 11/52),
+ * mit java --add-modules jdk.incubator.vector rechnen Gleitpunktstapel.add
+ * und sub mit der Vector API (siehe Gleitpunktstapel_simd).
+ * Die IEEE-Umwandlungen und invSqrt werden nur fuer Formate mit
+ * sizeExponent + sizeMantisse <= 32 gemessen.
+ */
+public class Benchmark_Gleitpunktzahl {
+
+	private static final int N = 1 << 12;
+
+	/* Ausfuehrungen zum Aufwaermen der Stapelkerne add und sub */
+	private static final int AUFWAERMEN_SIMD = 500;
+
+	public static void main(String[] args) {
+		String[] formate = args.length > 0 ? args : new String[] { "4/8",
+				"8/24", "11/52" };
+		for (String s : formate) {
+			String[] em = s.split("/");
+			messen(new Gleitpunktformat(Integer.parseInt(em[0]),
+					Integer.parseInt(em[1])));
+		}
+	}
+
+	/* misst alle Operationen im Format f */
+	private static void messen(final Gleitpunktformat f) {
+		System.out.println("\n" + f + " (" + N + " Werte pro Ausfuehrung)");
+
+		/* Werte im Bereich des Formats, nur normalisierte endliche Zahlen */
+		Random random = new Random(42);
+		int spanne = Math.min(f.getExpOffset(), 60);
+		final double[] werte = new double[N];
+		final Gleitpunktzahl[] x = new Gleitpunktzahl[N];
+		final Gleitpunktzahl[] y = new Gleitpunktzahl[N];
+		final long[] a = new long[N];
+		final long[] b = new long[N];
+		final long[] c = new long[N];
+		for (int i = 0; i < N; i++) {
+			werte[i] = Math.scalb(1 + random.nextDouble(), random.nextInt(spanne
+					+ 1) - spanne / 2);
+			x[i] = new Gleitpunktzahl(werte[i], f);
+			y[i] = new Gleitpunktzahl(Math.scalb(1 + random.nextDouble(),
+					random.nextInt(spanne + 1) - spanne / 2), f);
+			a[i] = x[i].getBits();
+			b[i] = y[i].getBits();
+		}
+		final Gleitpunktzahl ziel = new Gleitpunktzahl(f);
+
+		Benchmark.messen("new Gleitpunktzahl(double, format)", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += new Gleitpunktzahl(werte[i], f).exponent;
+			return s;
+		});
+		Benchmark.messen("Gleitpunktzahl.ausDouble (gepackt)", N, () -> {
+			Gleitpunktzahl.ausDouble(f, werte, c, 0, N);
+			return c[N - 1];
+		});
+		Benchmark.messen("toDouble", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += x[i].toDouble();
+			return s;
+		});
+		Benchmark.messen("Gleitpunktzahl.zuDouble (gepackt)", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += Gleitpunktzahl.zuDouble(f, a[i]);
+			return s;
+		});
+		Benchmark.messen("add", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += x[i].add(y[i]).exponent;
+			return s;
+		});
+		Benchmark.messen("addInto", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++) {
+				Gleitpunktzahl.addInto(x[i], y[i], ziel);
+				s += ziel.exponent;
+			}
+			return s;
+		});
+		Benchmark.messen("Gleitpunktzahl.add (gepackt)", N, () -> {
+			for (int i = 0; i < N; i++)
+				c[i] = Gleitpunktzahl.add(f, a[i], b[i]);
+			return c[N - 1];
+		});
+		Benchmark.messen("sub", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += x[i].sub(y[i]).exponent;
+			return s;
+		});
+		Benchmark.messen("Gleitpunktzahl.sub (gepackt)", N, () -> {
+			for (int i = 0; i < N; i++)
+				c[i] = Gleitpunktzahl.sub(f, a[i], b[i]);
+			return c[N - 1];
+		});
+		Benchmark.messen("Gleitpunktzahl.mul (gepackt)", N, () -> {
+			for (int i = 0; i < N; i++)
+				c[i] = Gleitpunktzahl.mul(f, a[i], b[i]);
+			return c[N - 1];
+		});
+		final double[] z = new double[N];
+		Benchmark.messen("Gleitpunktstapel.ausDouble", N, () -> {
+			Gleitpunktstapel.ausDouble(f, werte, c, 0, N);
+			return c[N - 1];
+		});
+		Benchmark.messen("Gleitpunktstapel.zuDouble", N, () -> {
+			Gleitpunktstapel.zuDouble(f, a, z, 0, N);
+			return z[N - 1];
+		});
+		/*
+		 * Die Vector API ist nur nach der Uebersetzung durch C2 schnell, vorher
+		 * wird jeder Vektor als Objekt angelegt; daher laenger aufwaermen
+		 */
+		String simd = Gleitpunktstapel.verwendetVectorApi(f) ? " (Vector API)" : "";
+		Benchmark.messen("Gleitpunktstapel.add" + simd, N, AUFWAERMEN_SIMD, () -> {
+			Gleitpunktstapel.add(f, a, b, c, 0, N);
+			return c[N - 1];
+		});
+		Benchmark.messen("Gleitpunktstapel.sub" + simd, N, AUFWAERMEN_SIMD, () -> {
+			Gleitpunktstapel.sub(f, a, b, c, 0, N);
+			return c[N - 1];
+		});
+		if (f.equals(Gleitpunkt_E4M8.FORMAT)) {
+			Benchmark.messen("Gleitpunkt_E4M8.ausDouble", N, () -> {
+				for (int i = 0; i < N; i++)
+					c[i] = Gleitpunkt_E4M8.ausDouble(werte[i]);
+				return c[N - 1];
+			});
+			Benchmark.messen("Gleitpunkt_E4M8.zuDouble", N, () -> {
+				double s = 0;
+				for (int i = 0; i < N; i++)
+					s += Gleitpunkt_E4M8.zuDouble(a[i]);
+				return s;
+			});
+			Benchmark.messen("Gleitpunkt_E4M8.add", N, () -> {
+				for (int i = 0; i < N; i++)
+					c[i] = Gleitpunkt_E4M8.add(a[i], b[i]);
+				return c[N - 1];
+			});
+			Benchmark.messen("Gleitpunkt_E4M8.mul", N, () -> {
+				for (int i = 0; i < N; i++)
+					c[i] = Gleitpunkt_E4M8.mul(a[i], b[i]);
+				return c[N - 1];
+			});
+		}
+		/* normalisiere einer um drei Stellen zu langen Mantisse */
+		Benchmark.messen("normalisiere", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++) {
+				ziel.vorzeichen = false;
+				ziel.exponent = x[i].exponent - 3;
+				ziel.mantisse = (x[i].mantisse << 3) | 5;
+				ziel.normalisiere();
+				s += ziel.exponent;
+			}
+			return s;
+		});
+
+		if (f.getSizeExponent() + f.getSizeMantisse() > 32)
+			return;
+		final int[] ieee = new int[N];
+		for (int i = 0; i < N; i++)
+			ieee[i] = FastMath.gleitpunktzahlToIEEE(x[i]);
+		Benchmark.messen("FastMath.gleitpunktzahlToIEEE", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += FastMath.gleitpunktzahlToIEEE(x[i]);
+			return s;
+		});
+		Benchmark.messen("FastMath.iEEEToGleitpunktzahl", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += FastMath.iEEEToGleitpunktzahl(ieee[i], f).exponent;
+			return s;
+		});
+		Benchmark.messen("FastMath.invSqrt", N, () -> {
+			double s = 0;
+			for (int i = 0; i < N; i++)
+				s += FastMath.invSqrt(x[i]).exponent;
+			return s;
+		});
+		final int magic = (int) (3 * (long) f.getExpOffset()
+				* f.getFuehrendeEins() / 2);
+		Benchmark.messen("FastMath.invSqrt (gepackt)", N, () -> {
+			for (int i = 0; i < N; i++)
+				c[i] = FastMath.invSqrt(f, a[i], magic);
+			return c[N - 1];
+		});
+	}
+}
@@ -21,6 +21,16 @@ public class FastMath {
 	 */
 	private static int MAGIC_NUMBER = 640; //used to be 1024
 
+	/**
+	 * The magic constant for IEEE-754 single precision floats, see Lomont.
+	 */
+	public static final int MAGIC_FLOAT = 0x5f3759df;
+
+	/**
+	 * The magic constant for IEEE-754 double precision values, see Lomont.
+	 */
+	public static final long MAGIC_DOUBLE = 0x5fe6ec85e7de30daL;
+
 	/**
 	 * belegt die MAGIC_NUMBER mit dem Wert magic
 	 */
@@ -52,7 +62,182 @@ public class FastMath {
 		iEEEfloat /= 2;
 		iEEEfloat = MAGIC_NUMBER - iEEEfloat;
 		return iEEEToGleitpunktzahl(iEEEfloat);*/
-		return iEEEToGleitpunktzahl(MAGIC_NUMBER - (gleitpunktzahlToIEEE(x)/2)); //this all in one line
+		return iEEEToGleitpunktzahl(MAGIC_NUMBER - (gleitpunktzahlToIEEE(x)/2), x.getFormat()); //this all in one line
+	}
+
+	/**
+	 * Fast inverse square root der gepackten Zahl bits (siehe
+	 * Gleitpunktformat.pack) im Format f mit der Konstanten magic anstelle von
+	 * MAGIC_NUMBER. Liefert das Ergebnis gepackt, ohne Objekte anzulegen.
+	 */
+	public static long invSqrt(Gleitpunktformat f, long bits, int magic) {
+		return iEEEToBits(f, magic - (gleitpunktzahlToIEEE(f, bits)/2));
+	}
+
+	/**
+	 * Approximately calculates 1 / sqrt(x) with the fast inverse square root
+	 * algorithm followed by newtonSchritte Newton-Raphson steps
+	 * y = y * (3/2 - x/2 * y * y). Every operation of a step is rounded to the
+	 * format of x.
+	 * 
+	 * @param x
+	 *            Input value of which the inverse square root should be
+	 *            computed.
+	 * @param newtonSchritte
+	 *            Number of Newton steps, 0 gives the same result as
+	 *            invSqrt(x).
+	 * @return Approximation for 1 / sqrt(x).
+	 */
+	public static Gleitpunktzahl invSqrt(Gleitpunktzahl x, int newtonSchritte) {
+		Gleitpunktzahl y = new Gleitpunktzahl(x.getFormat());
+		y.setBits(invSqrt(x.getFormat(), x.getBits(), MAGIC_NUMBER,
+				newtonSchritte));
+		return y;
+	}
+
+	/**
+	 * Fast inverse square root der gepackten Zahl bits im Format f mit der
+	 * Konstanten magic und newtonSchritte Newton-Schritten, siehe
+	 * invSqrt(Gleitpunktzahl, int)
+	 */
+	public static long invSqrt(Gleitpunktformat f, long bits, int magic,
+			int newtonSchritte) {
+		long y = invSqrt(f, bits, magic);
+		if (newtonSchritte <= 0)
+			return y;
+
+		long dreiHalbe = Gleitpunktzahl.ausDouble(f, 1.5);
+		long xHalbe = Gleitpunktzahl.mul(f, Gleitpunktzahl.ausDouble(f, 0.5),
+				bits);
+		for (int i = 0; i < newtonSchritte; i++)
+			y = newtonSchritt(f, xHalbe, y, dreiHalbe);
+		return y;
+	}
+
+	/**
+	 * Fast inverse square root mit newtonSchritte Newton-Schritten fuer die
+	 * Zahlen x[von..bis), das Ergebnis wird nach ziel[von..bis) geschrieben.
+	 * ziel darf x sein.
+	 */
+	public static void invSqrt(Gleitpunktvektor x, Gleitpunktvektor ziel,
+			int von, int bis, int magic, int newtonSchritte) {
+		Gleitpunktformat f = x.getFormat();
+		if (!f.equals(ziel.getFormat()))
+			throw new IllegalArgumentException("Verschiedene Formate: " + f
+					+ ", " + ziel.getFormat());
+
+		long dreiHalbe = Gleitpunktzahl.ausDouble(f, 1.5);
+		long halbe = Gleitpunktzahl.ausDouble(f, 0.5);
+		for (int i = von; i < bis; i++) {
+			long bits = x.getBits(i);
+			long y = invSqrt(f, bits, magic);
+			if (newtonSchritte > 0) {
+				long xHalbe = Gleitpunktzahl.mul(f, halbe, bits);
+				for (int k = 0; k < newtonSchritte; k++)
+					y = newtonSchritt(f, xHalbe, y, dreiHalbe);
+			}
+			ziel.setBits(i, y);
+		}
+	}
+
+	/**
+	 * Fast inverse square root im Format f fuer die Double-Werte x[von..bis),
+	 * das auf double zurueckgewandelte Ergebnis wird nach ziel[von..bis)
+	 * geschrieben. Die Werte werden blockweise ueber den Puffer puffer
+	 * umgewandelt, so dass auch bei Millionen von Werten kein weiterer
+	 * Speicher angelegt wird.
+	 */
+	public static void invSqrt(Gleitpunktformat f, double[] x, double[] ziel,
+			int von, int bis, int magic, int newtonSchritte, long[] puffer) {
+		long dreiHalbe = Gleitpunktzahl.ausDouble(f, 1.5);
+		long halbe = Gleitpunktzahl.ausDouble(f, 0.5);
+		for (int block = von; block < bis; block += puffer.length) {
+			int n = Math.min(puffer.length, bis - block);
+			for (int i = 0; i < n; i++)
+				puffer[i] = Gleitpunktzahl.ausDouble(f, x[block + i]);
+			for (int i = 0; i < n; i++) {
+				long y = invSqrt(f, puffer[i], magic);
+				if (newtonSchritte > 0) {
+					long xHalbe = Gleitpunktzahl.mul(f, halbe, puffer[i]);
+					for (int k = 0; k < newtonSchritte; k++)
+						y = newtonSchritt(f, xHalbe, y, dreiHalbe);
+				}
+				puffer[i] = y;
+			}
+			for (int i = 0; i < n; i++)
+				ziel[block + i] = Gleitpunktzahl.zuDouble(f, puffer[i]);
+		}
+	}
+
+	/* ein Newton-Schritt y = y * (3/2 - x/2 * y * y) im Format f */
+	private static long newtonSchritt(Gleitpunktformat f, long xHalbe, long y,
+			long dreiHalbe) {
+		long t = Gleitpunktzahl.mul(f, y, y);
+		t = Gleitpunktzahl.mul(f, xHalbe, t);
+		t = Gleitpunktzahl.sub(f, dreiHalbe, t);
+		return Gleitpunktzahl.mul(f, y, t);
+	}
+
+	/**
+	 * The fast inverse square root algorithm applied directly to the bits of
+	 * an IEEE-754 float, followed by newtonSchritte Newton-Raphson steps in
+	 * float arithmetic.
+	 * 
+	 * @param x
+	 *            Input value of which the inverse square root should be
+	 *            computed.
+	 * @param newtonSchritte
+	 *            Number of Newton steps.
+	 * @return Approximation for 1 / sqrt(x).
+	 */
+	public static float invSqrt(float x, int newtonSchritte) {
+		float xHalbe = 0.5f * x;
+		float y = Float.intBitsToFloat(MAGIC_FLOAT
+				- (Float.floatToRawIntBits(x) >> 1));
+		for (int i = 0; i < newtonSchritte; i++)
+			y = y * (1.5f - xHalbe * y * y);
+		return y;
+	}
+
+	/**
+	 * The fast inverse square root algorithm applied directly to the bits of
+	 * an IEEE-754 double, followed by newtonSchritte Newton-Raphson steps in
+	 * double arithmetic.
+	 * 
+	 * @param x
+	 *            Input value of which the inverse square root should be
+	 *            computed.
+	 * @param newtonSchritte
+	 *            Number of Newton steps.
+	 * @return Approximation for 1 / sqrt(x).
+	 */
+	public static double invSqrt(double x, int newtonSchritte) {
+		double xHalbe = 0.5 * x;
+		double y = Double.longBitsToDouble(MAGIC_DOUBLE
+				- (Double.doubleToRawLongBits(x) >> 1));
+		for (int i = 0; i < newtonSchritte; i++)
+			y = y * (1.5 - xHalbe * y * y);
+		return y;
+	}
+
+	/**
+	 * Writes invSqrt(x[i], newtonSchritte) to ziel[i] for all i in [von, bis).
+	 * ziel may be x.
+	 */
+	public static void invSqrt(float[] x, float[] ziel, int von, int bis,
+			int newtonSchritte) {
+		for (int i = von; i < bis; i++)
+			ziel[i] = invSqrt(x[i], newtonSchritte);
+	}
+
+	/**
+	 * Writes invSqrt(x[i], newtonSchritte) to ziel[i] for all i in [von, bis).
+	 * ziel may be x.
+	 */
+	public static void invSqrt(double[] x, double[] ziel, int von, int bis,
+			int newtonSchritte) {
+		for (int i = von; i < bis; i++)
+			ziel[i] = invSqrt(x[i], newtonSchritte);
 	}
 
 	/**
@@ -64,8 +249,18 @@ public class FastMath {
 	 * @return Absolute error between invSqrt(x) and 1 / Math.sqrt(x).
 	 */
 	public static double absInvSqrtErr(Gleitpunktzahl x) {
-		double exact = 1 / Math.sqrt(x.toDouble());
-		double approx = invSqrt(x).toDouble();
+		return absInvSqrtErr(x.getFormat(), x.getBits(), MAGIC_NUMBER);
+	}
+
+	/**
+	 * Calculates the absolute error of the fast inverse square root of the
+	 * packed number bits (see Gleitpunktformat.pack) in format f, using magic
+	 * instead of MAGIC_NUMBER.
+	 */
+	public static double absInvSqrtErr(Gleitpunktformat f, long bits,
+			int magic) {
+		double exact = 1 / Math.sqrt(Gleitpunktzahl.zuDouble(f, bits));
+		double approx = Gleitpunktzahl.zuDouble(f, invSqrt(f, bits, magic));
 		double absErr = Math.abs(exact - approx);
 
 		return absErr;
@@ -80,8 +275,19 @@ public class FastMath {
 	 * @return Relative error between invSqrt(x) and 1 / Math.sqrt(x).
 	 */
 	public static double relInvSqrtErr(Gleitpunktzahl x) {
-		double absErr = absInvSqrtErr(x);
-		double relErr = Math.abs(absErr * Math.sqrt(x.toDouble()));
+		return relInvSqrtErr(x.getFormat(), x.getBits(), MAGIC_NUMBER);
+	}
+
+	/**
+	 * Calculates the relative error of the fast inverse square root of the
+	 * packed number bits (see Gleitpunktformat.pack) in format f, using magic
+	 * instead of MAGIC_NUMBER.
+	 */
+	public static double relInvSqrtErr(Gleitpunktformat f, long bits,
+			int magic) {
+		double absErr = absInvSqrtErr(f, bits, magic);
+		double relErr = Math.abs(absErr
+				* Math.sqrt(Gleitpunktzahl.zuDouble(f, bits)));
 
 		return relErr;
 	}
@@ -93,21 +299,25 @@ public class FastMath {
 	 * für ein Funktionieren des Fast Inverse Sqrt Algorithmus
 	 */
 	public static int gleitpunktzahlToIEEE(Gleitpunktzahl x) {
-		int sizeExponent = Gleitpunktzahl.getSizeExponent();
-		int sizeMantisse = Gleitpunktzahl.getSizeMantisse();
+		return gleitpunktzahlToIEEE(x.getFormat(), x.getBits());
+	}
+
+	/**
+	 * Uebersetzt die gepackte Gleitpunktzahl bits (siehe Gleitpunktformat.pack)
+	 * im Format f in die IEEE-Bitfolge, wie gleitpunktzahlToIEEE
+	 */
+	public static int gleitpunktzahlToIEEE(Gleitpunktformat f, long bits) {
+		int sizeMantisse = f.getSizeMantisse();
 
-		int result;
-		
 		/* mantisse ohne fuehrende 1 einfuegen */
-		int mask = (int) Math.pow(2, sizeMantisse-1) - 1;
-		result = (x.mantisse & mask);
-		
+		int result = (int) (f.mantisse(bits) & f.getIEEEMantissenMaske());
+
 		/* exponent vorne anhaengen */
-		result |= (x.exponent << sizeMantisse-1);
-		
+		result |= (f.exponent(bits) << sizeMantisse-1);
+
 		/* vorzeichen setzen */
-		if (x.vorzeichen)
-			result |= (1 << sizeExponent + sizeMantisse-1);
+		if (f.vorzeichen(bits))
+			result |= (1 << f.getSizeExponent() + sizeMantisse-1);
 
 		return result;
 	}
@@ -115,29 +325,39 @@ public class FastMath {
 	/**
 	 * Liefert aus einer Bitfolge (int) in IEEE Darstellung, d.h. [Vorzeichen,
 	 * Exponent, Mantisse] mit Mantisse ohne führende Null, die entsprechende
-	 * Gleitpunktdarstellung
+	 * Gleitpunktdarstellung im Standardformat
 	 */
 	public static Gleitpunktzahl iEEEToGleitpunktzahl(int b) {
-		Gleitpunktzahl g = new Gleitpunktzahl();
-		int sizeExponent = Gleitpunktzahl.getSizeExponent();
-		int sizeMantisse = Gleitpunktzahl.getSizeMantisse();
+		return iEEEToGleitpunktzahl(b, Gleitpunktzahl.getStandardFormat());
+	}
 
-		/* fuehrende 1 fuer mantisse eintragen */
-		g.mantisse = 1;
-		g.mantisse <<= sizeMantisse-1;
-		/* mantisse ohne fuehrende 1 einfuegen */
-		int mask = (int) Math.pow(2, sizeMantisse-1) - 1;
-		g.mantisse |= (b & mask);
+	/**
+	 * Liefert aus einer Bitfolge (int) in IEEE Darstellung die entsprechende
+	 * Gleitpunktdarstellung im Format format
+	 */
+	public static Gleitpunktzahl iEEEToGleitpunktzahl(int b,
+			Gleitpunktformat format) {
+		Gleitpunktzahl g = new Gleitpunktzahl(format);
+		g.setBits(iEEEToBits(format, b));
+		return g;
+	}
+
+	/**
+	 * Liefert aus einer Bitfolge (int) in IEEE Darstellung die gepackte
+	 * Gleitpunktzahl (siehe Gleitpunktformat.pack) im Format f
+	 */
+	public static long iEEEToBits(Gleitpunktformat f, int b) {
+		int sizeMantisse = f.getSizeMantisse();
+
+		/* fuehrende 1 fuer mantisse eintragen, mantisse ohne fuehrende 1 einfuegen */
+		long mantisse = f.getFuehrendeEins() | (b & f.getIEEEMantissenMaske());
+
+		/* exponent eintragen */
+		int exponent = (b >>> sizeMantisse-1) & f.getMaxExponent();
 
-		/* exponent eintrage */
-		b >>= sizeMantisse-1;
-		mask = (int) Math.pow(2, sizeExponent) - 1;
-		g.exponent = (b & mask);
-		
 		/* vorzeichen setzen */
-		b >>= sizeExponent;
-		g.vorzeichen = (b & 1) > 0;
+		boolean vorzeichen = ((b >>> f.getSizeExponent() + sizeMantisse-1) & 1) != 0;
 
-		return g;
+		return f.pack(vorzeichen, exponent, mantisse);
 	}
 }
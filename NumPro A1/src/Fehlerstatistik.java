@@ -0,0 +1,297 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Sammelt Fehlerkennzahlen einer Naeherung (z.B. FastMath.invSqrt) an
+ * beliebig vielen Stellen in konstantem Speicher: maximaler, mittlerer und
+ * quadratisch gemittelter (RMS) relativer Fehler wie in
+ * FastMath.relInvSqrtErr, maximaler und mittlerer absoluter Fehler wie in
+ * FastMath.absInvSqrtErr, die Stelle des groessten relativen Fehlers und ein
+ * Histogramm der Fehler in ULP.
+ *
+ * Eine Statistik ist nicht threadsicher. Fuer parallele Auswertungen bekommt
+ * jeder Thread eine eigene, die am Ende mit zusammenfuehren vereinigt werden,
+ * siehe parallel.
+ */
+public class Fehlerstatistik {
+
+	/** Anzahl der Faecher des ULP-Histogramms */
+	public static final int FAECHER = 64;
+
+	/* Fach k (1 <= k < FAECHER-1) zaehlt Fehler in [2^(k-7), 2^(k-6)) ULP */
+	private static final int FACH_OFFSET = 7;
+
+	/** Eine Menge von Stellen, die mit Indizes in [von, bis) adressiert wird */
+	public interface Stellen {
+		/** wertet die Stelle mit Index i aus und traegt sie in s ein */
+		void auswerten(long i, Fehlerstatistik s);
+	}
+
+	/* Anzahl der Bits der Mantisse (mit fuehrender 1) fuer die ULP */
+	private final int mantissenBits;
+
+	private long anzahl = 0;
+	private long nichtEndlich = 0;
+
+	private double maxRelErr = 0;
+	private double argMaxRelErr = Double.NaN;
+	private double maxAbsErr = 0;
+
+	/* Kahan-Summen der relativen, quadrierten relativen und absoluten Fehler */
+	private double summeRel = 0, korrekturRel = 0;
+	private double summeQuad = 0, korrekturQuad = 0;
+	private double summeAbs = 0, korrekturAbs = 0;
+
+	private final long[] histogramm = new long[FAECHER];
+
+	/**
+	 * erzeugt eine leere Statistik. Die ULP werden fuer ein Format mit
+	 * mantissenBits Bits Mantisse (inklusive fuehrender 1) bestimmt, z.B. 24
+	 * fuer float oder Gleitpunktformat.getSizeMantisse().
+	 */
+	public Fehlerstatistik(int mantissenBits) {
+		this.mantissenBits = mantissenBits;
+	}
+
+	/**
+	 * traegt die Naeherung naeherung fuer den exakten Wert exakt an der
+	 * Stelle x ein
+	 */
+	public void hinzufuegen(double x, double exakt, double naeherung) {
+		anzahl++;
+		double absErr = Math.abs(exakt - naeherung);
+		double relErr = Math.abs(absErr / exakt);
+		if (!(relErr < Double.POSITIVE_INFINITY)) {
+			nichtEndlich++;
+			histogramm[FAECHER - 1]++;
+			return;
+		}
+
+		if (relErr > maxRelErr) {
+			maxRelErr = relErr;
+			argMaxRelErr = x;
+		}
+		if (absErr > maxAbsErr)
+			maxAbsErr = absErr;
+
+		double y = relErr - korrekturRel;
+		double t = summeRel + y;
+		korrekturRel = (t - summeRel) - y;
+		summeRel = t;
+
+		y = relErr * relErr - korrekturQuad;
+		t = summeQuad + y;
+		korrekturQuad = (t - summeQuad) - y;
+		summeQuad = t;
+
+		y = absErr - korrekturAbs;
+		t = summeAbs + y;
+		korrekturAbs = (t - summeAbs) - y;
+		summeAbs = t;
+
+		histogramm[fach(absErr / ulp(exakt))]++;
+	}
+
+	/**
+	 * vereinigt die Statistik andere mit dieser. Die beiden Teilsummen werden
+	 * mit TwoSum addiert und deren Rundungsfehler in die Korrektur
+	 * uebernommen; ungenau bleibt nur die Addition der Korrekturen, die
+	 * betragsmaessig hoechstens einige ULP der Summe sind. Die Mittelwerte
+	 * haben daher auch nach vielen Vereinigungen einen relativen Fehler in
+	 * der Groessenordnung von 2^-52 wie bei der sequentiellen Kahan-Summe,
+	 * sind aber im Allgemeinen nicht bitweise gleich.
+	 */
+	public void zusammenfuehren(Fehlerstatistik andere) {
+		if (andere.mantissenBits != mantissenBits)
+			throw new IllegalArgumentException(
+					"Verschiedene Anzahl an Mantissenbits: " + mantissenBits
+							+ ", " + andere.mantissenBits);
+		anzahl += andere.anzahl;
+		nichtEndlich += andere.nichtEndlich;
+		if (andere.maxRelErr > maxRelErr
+				|| (andere.maxRelErr == maxRelErr && andere.argMaxRelErr < argMaxRelErr)) {
+			maxRelErr = andere.maxRelErr;
+			argMaxRelErr = andere.argMaxRelErr;
+		}
+		maxAbsErr = Math.max(maxAbsErr, andere.maxAbsErr);
+		double s = summeRel + andere.summeRel;
+		korrekturRel += andere.korrekturRel
+				- rundungsfehler(summeRel, andere.summeRel, s);
+		summeRel = s;
+		s = summeQuad + andere.summeQuad;
+		korrekturQuad += andere.korrekturQuad
+				- rundungsfehler(summeQuad, andere.summeQuad, s);
+		summeQuad = s;
+		s = summeAbs + andere.summeAbs;
+		korrekturAbs += andere.korrekturAbs
+				- rundungsfehler(summeAbs, andere.summeAbs, s);
+		summeAbs = s;
+		for (int i = 0; i < FAECHER; i++)
+			histogramm[i] += andere.histogramm[i];
+	}
+
+	/** Liefert die Anzahl der eingetragenen Stellen */
+	public long getAnzahl() {
+		return anzahl;
+	}
+
+	/** Liefert die Anzahl der Stellen mit nicht endlichem Fehler */
+	public long getNichtEndlich() {
+		return nichtEndlich;
+	}
+
+	/** Liefert den maximalen relativen Fehler */
+	public double getMaxRelErr() {
+		return maxRelErr;
+	}
+
+	/** Liefert die Stelle des maximalen relativen Fehlers */
+	public double getArgMaxRelErr() {
+		return argMaxRelErr;
+	}
+
+	/** Liefert den mittleren relativen Fehler der endlichen Fehler */
+	public double getMittlererRelErr() {
+		return (summeRel - korrekturRel) / endlich();
+	}
+
+	/** Liefert die Wurzel des mittleren quadrierten relativen Fehlers */
+	public double getRmsRelErr() {
+		return Math.sqrt((summeQuad - korrekturQuad) / endlich());
+	}
+
+	/** Liefert den maximalen absoluten Fehler */
+	public double getMaxAbsErr() {
+		return maxAbsErr;
+	}
+
+	/** Liefert den mittleren absoluten Fehler der endlichen Fehler */
+	public double getMittlererAbsErr() {
+		return (summeAbs - korrekturAbs) / endlich();
+	}
+
+	/**
+	 * Liefert eine Kopie des ULP-Histogramms: Fach k (1 <= k < FAECHER-1)
+	 * zaehlt Fehler in [2^(k-7), 2^(k-6)) ULP, Fach 0 alle kleineren, das
+	 * letzte Fach alle groesseren und die nicht endlichen
+	 */
+	public long[] getHistogramm() {
+		return histogramm.clone();
+	}
+
+	/** Liefert die untere Grenze des Fachs k in ULP */
+	public static double fachGrenze(int k) {
+		return k == 0 ? 0 : Math.scalb(1.0, k - FACH_OFFSET);
+	}
+
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("Stellen: %d (nicht endlich: %d)%n", anzahl,
+				nichtEndlich));
+		s.append(String.format("rel. Fehler: max %.6e bei x = %s, mittel %.6e, RMS %.6e%n",
+				maxRelErr, argMaxRelErr, getMittlererRelErr(), getRmsRelErr()));
+		s.append(String.format("abs. Fehler: max %.6e, mittel %.6e%n",
+				maxAbsErr, getMittlererAbsErr()));
+		s.append("ULP-Histogramm:\n");
+		for (int k = 0; k < FAECHER; k++) {
+			if (histogramm[k] == 0)
+				continue;
+			String bis = (k == FAECHER - 1) ? "inf" : String.valueOf(fachGrenze(k + 1));
+			s.append(String.format("    [%s, %s) ULP: %d%n", fachGrenze(k),
+					bis, histogramm[k]));
+		}
+		return s.toString();
+	}
+
+	/**
+	 * wertet die Stellen mit Index in [von, bis) parallel in Fork-Join-Tasks
+	 * aus und liefert die zusammengefuehrte Statistik. Teilbereiche mit
+	 * hoechstens koernung Stellen werden sequentiell ausgewertet; koernung
+	 * kleiner als 1 zaehlt als 1.
+	 */
+	public static Fehlerstatistik parallel(long von, long bis,
+			int mantissenBits, long koernung, Stellen stellen) {
+		return ForkJoinPool.commonPool().invoke(
+				new Teilaufgabe(von, bis, mantissenBits, Math.max(1, koernung),
+						stellen));
+	}
+
+	/* ein Teilbereich von parallel */
+	private static class Teilaufgabe extends RecursiveTask<Fehlerstatistik> {
+		private static final long serialVersionUID = 1L;
+
+		private final long von, bis, koernung;
+		private final int mantissenBits;
+		private final Stellen stellen;
+
+		Teilaufgabe(long von, long bis, int mantissenBits, long koernung,
+				Stellen stellen) {
+			this.von = von;
+			this.bis = bis;
+			this.mantissenBits = mantissenBits;
+			this.koernung = koernung;
+			this.stellen = stellen;
+		}
+
+		protected Fehlerstatistik compute() {
+			if (bis - von <= koernung) {
+				Fehlerstatistik s = new Fehlerstatistik(mantissenBits);
+				for (long i = von; i < bis; i++)
+					stellen.auswerten(i, s);
+				return s;
+			}
+			long mitte = von + (bis - von) / 2;
+			Teilaufgabe links = new Teilaufgabe(von, mitte, mantissenBits,
+					koernung, stellen);
+			links.fork();
+			Fehlerstatistik s = new Teilaufgabe(mitte, bis, mantissenBits,
+					koernung, stellen).compute();
+			s.zusammenfuehren(links.join());
+			return s;
+		}
+	}
+
+	/* Liefert (a + b) - s exakt fuer s = a + b gerundet (TwoSum) */
+	private static double rundungsfehler(double a, double b, double s) {
+		double bStrich = s - a;
+		return (a - (s - bStrich)) + (b - bStrich);
+	}
+
+	/* Liefert die Anzahl der Stellen mit endlichem Fehler */
+	private double endlich() {
+		return anzahl - nichtEndlich;
+	}
+
+	/* Liefert die ULP von y bei mantissenBits Bits Mantisse */
+	private double ulp(double y) {
+		return Math.scalb(1.0, Math.getExponent(y) - (mantissenBits - 1));
+	}
+
+	/* Liefert das Histogrammfach fuer einen Fehler von ulps ULP */
+	private static int fach(double ulps) {
+		if (!(ulps < Double.POSITIVE_INFINITY))
+			return FAECHER - 1;
+		if (ulps < fachGrenze(1))
+			return 0;
+		return Math.min(FAECHER - 1, Math.getExponent(ulps) + FACH_OFFSET);
+	}
+
+	/**
+	 * Wertet FastMath.invSqrt(float, args[0]) an allen positiven endlichen
+	 * floats aus (Standard: 0 Newton-Schritte)
+	 */
+	public static void main(String[] args) {
+		final int schritte = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+		long start = System.nanoTime();
+		Fehlerstatistik s = parallel(1, Float.floatToRawIntBits(Float.MAX_VALUE) + 1L,
+				24, 1 << 16, (i, statistik) -> {
+					float x = Float.intBitsToFloat((int) i);
+					statistik.hinzufuegen(x, 1 / Math.sqrt(x),
+							FastMath.invSqrt(x, schritte));
+				});
+		long dauer = (System.nanoTime() - start) / 1000000;
+		System.out.println("FastMath.invSqrt(float, " + schritte + "), "
+				+ dauer + " ms");
+		System.out.print(s);
+	}
+}
@@ -0,0 +1,209 @@
+/**
+ * Gepackte Kerne von Gleitpunktzahl, spezialisiert auf das Format
+ * 4/8. Erzeugt von Gleitpunktgenerator, nicht von Hand aendern.
+ */
+public final class Gleitpunkt_E4M8 {
+
+	/** Das Format, auf das diese Klasse spezialisiert ist */
+	public static final Gleitpunktformat FORMAT = new Gleitpunktformat(
+			4, 8);
+
+	public static final int SIZE_EXPONENT = 4;
+	public static final int SIZE_MANTISSE = 8;
+	public static final int MAX_EXPONENT = 15;
+	public static final int EXP_OFFSET = 7;
+	public static final long MANTISSEN_MASKE = 0xffL;
+	public static final long VORZEICHEN_BIT = 0x1000L;
+	public static final long FUEHRENDE_EINS = 0x80L;
+
+	private static final long DOUBLE_MANTISSE = 0xfffffffffffffL;
+
+	private Gleitpunkt_E4M8() {
+	}
+
+	/** wie Gleitpunktformat.pack */
+	public static long pack(boolean vorzeichen, int exponent, long mantisse) {
+		long bits = (mantisse & MANTISSEN_MASKE)
+				| ((long) (exponent & MAX_EXPONENT) << SIZE_MANTISSE);
+		if (vorzeichen)
+			bits |= VORZEICHEN_BIT;
+		return bits;
+	}
+
+	/** wie Gleitpunktformat.vorzeichen */
+	public static boolean vorzeichen(long bits) {
+		return (bits & VORZEICHEN_BIT) != 0;
+	}
+
+	/** wie Gleitpunktformat.exponent */
+	public static int exponent(long bits) {
+		return (int) (bits >>> SIZE_MANTISSE) & MAX_EXPONENT;
+	}
+
+	/** wie Gleitpunktformat.mantisse */
+	public static long mantisse(long bits) {
+		return bits & MANTISSEN_MASKE;
+	}
+
+	/** wie Gleitpunktzahl.ausDouble(Gleitpunktformat, double) */
+	public static long ausDouble(double d) {
+		if (d == 0)
+			return 0L;
+		if (Double.isInfinite(d))
+			return pack(d < 0, MAX_EXPONENT, 0);
+		if (Double.isNaN(d))
+			return pack(false, MAX_EXPONENT, 1);
+
+		long bits = Double.doubleToRawLongBits(d);
+		boolean vorzeichen = bits < 0;
+		int exp = (int) (bits >>> 52) & 0x7ff;
+		long signifikand = bits & DOUBLE_MANTISSE;
+		if (exp == 0) {
+			int shift = Long.numberOfLeadingZeros(signifikand) - 11;
+			signifikand <<= shift;
+			exp = -1022 - shift;
+		} else {
+			signifikand |= 1L << 52;
+			exp -= 1023;
+		}
+
+		int shift = 52 - SIZE_MANTISSE;
+		long mantisse = (shift >= 0) ? signifikand >>> shift
+				: signifikand << -shift;
+		return normalisiere(vorzeichen, exp + EXP_OFFSET - 1, mantisse);
+	}
+
+	/** wie Gleitpunktzahl.zuDouble(Gleitpunktformat, long) */
+	public static double zuDouble(long bits) {
+		boolean vorzeichen = vorzeichen(bits);
+		int exponent = exponent(bits);
+		long mantisse = mantisse(bits);
+		if (exponent == MAX_EXPONENT) {
+			if (mantisse == 0)
+				return vorzeichen ? -1.0 / 0.0 : 1.0 / 0.0;
+			return 0.0 / 0.0;
+		}
+		int k = (exponent - EXP_OFFSET) - (SIZE_MANTISSE - 1);
+		if (mantisse > 0) {
+			int p = 63 - Long.numberOfLeadingZeros(mantisse);
+			int e = k + p;
+			if (p <= 52 && e >= -1022 && e <= 1023) {
+				long d = ((long) (e + 1023) << 52)
+						| ((mantisse << (52 - p)) & DOUBLE_MANTISSE);
+				if (vorzeichen)
+					d |= Long.MIN_VALUE;
+				return Double.longBitsToDouble(d);
+			}
+		}
+		double m = mantisse;
+		if (vorzeichen)
+			m *= (-1);
+		return m * Math.pow(2, k);
+	}
+
+	/**
+	 * wie Gleitpunktzahl.normalisiereEndlich: normalisiert und rundet das
+	 * endliche Zwischenergebnis (-1)^vorzeichen * mantisse * 2^exponent
+	 */
+	public static long normalisiere(boolean vorzeichen, int exponent,
+			long mantisse) {
+		if (mantisse == 0)
+			return 0L;
+
+		int n = Long.numberOfLeadingZeros(mantisse) - (64 - SIZE_MANTISSE);
+		if (n < 0) {
+			mantisse >>>= -n - 1;
+			mantisse = (mantisse >>> 1) + (mantisse & 1);
+			if (Long.numberOfLeadingZeros(mantisse) < 64 - SIZE_MANTISSE) {
+				mantisse >>>= 1;
+				exponent++;
+			}
+		} else {
+			mantisse <<= n;
+		}
+		exponent -= n;
+
+		if (exponent >= MAX_EXPONENT)
+			return pack(vorzeichen, MAX_EXPONENT, 0);
+		if (exponent < 0) {
+			if (exponent == -1)
+				return pack(vorzeichen, 0, FUEHRENDE_EINS);
+			else
+				return 0L;
+		}
+		return pack(vorzeichen, exponent, mantisse);
+	}
+
+	/** wie Gleitpunktzahl.add(Gleitpunktformat, long, long) */
+	public static long add(long a, long b) {
+		if (a == 0L)
+			return b;
+		if (b == 0L)
+			return a;
+		int ea = exponent(a);
+		int eb = exponent(b);
+		if (ea == MAX_EXPONENT)
+			return a;
+		if (eb == MAX_EXPONENT)
+			return b;
+
+		if (eb > ea) {
+			long t = a; a = b; b = t;
+			int e = ea; ea = eb; eb = e;
+		}
+		boolean va = vorzeichen(a);
+		boolean vb = vorzeichen(b);
+		long ma = mantisse(a) << 3;
+		long mb = mantisse(b) << 3;
+
+		int d = ea - eb;
+		if (d >= 64) {
+			mb = 1;
+		} else if (d > 0) {
+			long sticky = (mb & ((1L << d) - 1)) != 0 ? 1 : 0;
+			mb = (mb >>> d) | sticky;
+		}
+
+		boolean vorzeichen;
+		long mantisse;
+		if (va == vb) {
+			vorzeichen = va;
+			mantisse = ma + mb;
+		} else {
+			mantisse = (ma >= mb) ? (ma - mb) : (mb - ma);
+			vorzeichen = (ma >= mb) ? va : vb;
+		}
+		return normalisiere(vorzeichen, ea - 3, mantisse);
+	}
+
+	/** wie Gleitpunktzahl.sub(Gleitpunktformat, long, long) */
+	public static long sub(long a, long b) {
+		long r = add(a, b ^ VORZEICHEN_BIT);
+		return (r == VORZEICHEN_BIT) ? 0L : r;
+	}
+
+	/** wie Gleitpunktzahl.mul(Gleitpunktformat, long, long) */
+	public static long mul(long a, long b) {
+		int ea = exponent(a);
+		int eb = exponent(b);
+		long ma = mantisse(a);
+		long mb = mantisse(b);
+		boolean vorzeichen = vorzeichen(a) ^ vorzeichen(b);
+
+		if ((ea == MAX_EXPONENT && ma != 0) || (eb == MAX_EXPONENT && mb != 0))
+			return pack(false, MAX_EXPONENT, 1);
+		if (ea == MAX_EXPONENT || eb == MAX_EXPONENT) {
+			if (ma == 0 && ea != MAX_EXPONENT || mb == 0 && eb != MAX_EXPONENT)
+				return pack(false, MAX_EXPONENT, 1);
+			return pack(vorzeichen, MAX_EXPONENT, 0);
+		}
+		if (ma == 0 || mb == 0)
+			return 0L;
+
+		long produkt = ma * mb;
+		int s = 64 - Long.numberOfLeadingZeros(produkt) - (SIZE_MANTISSE + 1);
+		long mantisse = (s > 0) ? produkt >>> s : produkt << -s;
+		int exponent = ea + eb - EXP_OFFSET - (SIZE_MANTISSE - 1) + s;
+		return normalisiere(vorzeichen, exponent, mantisse);
+	}
+}
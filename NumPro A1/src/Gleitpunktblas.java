@@ -0,0 +1,261 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Einfache BLAS-1-Kerne (Skalarprodukt, axpy, Summe, 2-Norm) auf
+ * Gleitpunktvektoren. Jede einzelne Operation wird wie in Gleitpunktzahl
+ * (add, mul) im Format der Vektoren gerundet; die Kerne zeigen also, wie sich
+ * ein Algorithmus auf Hardware mit dieser Genauigkeit verhalten wuerde.
+ *
+ * Die Kerne arbeiten auf dem Indexbereich [von, bis) und teilen ihn in
+ * Fork-Join-Tasks mit hoechstens koernung Zahlen auf (Standard: KOERNUNG).
+ * Die Reduktionen summe und dot summieren paarweise: der Bereich wird immer
+ * in der Mitte geteilt, bis hoechstens BLOCK Zahlen uebrig sind, die der
+ * Reihe nach summiert werden. Da die Parallelisierung denselben Baum
+ * verwendet, ist das Ergebnis unabhaengig von der Anzahl der Threads. Nur
+ * summeSequentiell summiert streng von links nach rechts und daher in einem
+ * Thread.
+ *
+ * Die Ergebnisse der Reduktionen werden gepackt (siehe Gleitpunktformat.pack)
+ * geliefert, z.B. fuer Gleitpunktzahl.zuDouble.
+ */
+public class Gleitpunktblas {
+
+	/** Anzahl der Zahlen, die bei paarweiser Summation der Reihe nach summiert werden */
+	public static final int BLOCK = 16;
+
+	/** Standardwert fuer die maximale Anzahl an Zahlen pro Fork-Join-Task */
+	public static final int KOERNUNG = 1 << 14;
+
+	/**
+	 * Liefert die Summe von x[von..bis), paarweise summiert. Der Fehler waechst
+	 * nur mit log(bis - von) statt linear wie bei summeSequentiell.
+	 */
+	public static long summe(Gleitpunktvektor x, int von, int bis) {
+		return summe(x, von, bis, KOERNUNG);
+	}
+
+	/**
+	 * wie summe(x, von, bis) mit hoechstens koernung Zahlen pro
+	 * Fork-Join-Task; das Ergebnis haengt nicht von koernung ab
+	 */
+	public static long summe(Gleitpunktvektor x, int von, int bis, int koernung) {
+		x.pruefeBereich(von, bis);
+		return ForkJoinPool.commonPool().invoke(
+				new Reduktion(x.getFormat(), x.daten(), null, von, bis, koernung));
+	}
+
+	/** Liefert die Summe von x[von..bis), streng von links nach rechts summiert */
+	public static long summeSequentiell(Gleitpunktvektor x, int von, int bis) {
+		x.pruefeBereich(von, bis);
+		Gleitpunktformat f = x.getFormat();
+		long[] daten = x.daten();
+		long s = 0L;
+		for (int i = von; i < bis; i++)
+			s = Gleitpunktzahl.add(f, s, daten[i]);
+		return s;
+	}
+
+	/**
+	 * Liefert das Skalarprodukt von x[von..bis) und y[von..bis): jedes
+	 * Produkt wird gerundet und die Produkte werden paarweise summiert
+	 */
+	public static long dot(Gleitpunktvektor x, Gleitpunktvektor y, int von,
+			int bis) {
+		return dot(x, y, von, bis, KOERNUNG);
+	}
+
+	/**
+	 * wie dot(x, y, von, bis) mit hoechstens koernung Zahlen pro
+	 * Fork-Join-Task; das Ergebnis haengt nicht von koernung ab
+	 */
+	public static long dot(Gleitpunktvektor x, Gleitpunktvektor y, int von,
+			int bis, int koernung) {
+		x.pruefeFormat(y.getFormat());
+		x.pruefeBereich(von, bis);
+		y.pruefeBereich(von, bis);
+		return ForkJoinPool.commonPool().invoke(
+				new Reduktion(x.getFormat(), x.daten(), y.daten(), von, bis,
+						koernung));
+	}
+
+	/**
+	 * setzt y[i] = alpha * x[i] + y[i] fuer i in [von, bis). Produkt und
+	 * Summe werden einzeln gerundet (keine fused multiply-add).
+	 */
+	public static void axpy(Gleitpunktzahl alpha, Gleitpunktvektor x,
+			Gleitpunktvektor y, int von, int bis) {
+		axpy(alpha, x, y, von, bis, KOERNUNG);
+	}
+
+	/**
+	 * wie axpy(alpha, x, y, von, bis) mit hoechstens koernung Zahlen pro
+	 * Fork-Join-Task
+	 */
+	public static void axpy(Gleitpunktzahl alpha, Gleitpunktvektor x,
+			Gleitpunktvektor y, int von, int bis, int koernung) {
+		x.pruefeFormat(alpha.getFormat());
+		x.pruefeFormat(y.getFormat());
+		x.pruefeBereich(von, bis);
+		y.pruefeBereich(von, bis);
+		ForkJoinPool.commonPool().invoke(
+				new Axpy(x.getFormat(), alpha.getBits(), x.daten(), y.daten(),
+						von, bis, koernung));
+	}
+
+	/**
+	 * Liefert die 2-Norm von x[von..bis): die Quadrate werden wie in dot
+	 * summiert, die Wurzel wird ueber double gezogen und auf das Format
+	 * gerundet. Fuer sizeMantisse <= 25 ist die Wurzel damit korrekt gerundet
+	 * (double hat mehr als doppelt so viele Stellen). Es wird nicht skaliert,
+	 * die Summe der Quadrate kann also schon vor der Wurzel ueberlaufen.
+	 */
+	public static long norm2(Gleitpunktvektor x, int von, int bis) {
+		return norm2(x, von, bis, KOERNUNG);
+	}
+
+	/**
+	 * wie norm2(x, von, bis) mit hoechstens koernung Zahlen pro
+	 * Fork-Join-Task; das Ergebnis haengt nicht von koernung ab
+	 */
+	public static long norm2(Gleitpunktvektor x, int von, int bis, int koernung) {
+		Gleitpunktformat f = x.getFormat();
+		double quadrate = Gleitpunktzahl.zuDouble(f,
+				dot(x, x, von, bis, koernung));
+		return Gleitpunktzahl.ausDouble(f, Math.sqrt(quadrate));
+	}
+
+	/*
+	 * paarweise Summe von x[von..bis) bzw., falls y != null, der Produkte
+	 * x[i] * y[i]
+	 */
+	private static long paarweise(Gleitpunktformat f, long[] x, long[] y,
+			int von, int bis) {
+		if (bis - von <= BLOCK) {
+			long s = 0L;
+			if (y == null)
+				for (int i = von; i < bis; i++)
+					s = Gleitpunktzahl.add(f, s, x[i]);
+			else
+				for (int i = von; i < bis; i++)
+					s = Gleitpunktzahl.add(f, s, Gleitpunktzahl.mul(f, x[i], y[i]));
+			return s;
+		}
+		int mitte = (von + bis) >>> 1;
+		return Gleitpunktzahl.add(f, paarweise(f, x, y, von, mitte),
+				paarweise(f, x, y, mitte, bis));
+	}
+
+	/* paralleler Teil von paarweise; teilt an denselben Stellen */
+	private static class Reduktion extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+
+		private final Gleitpunktformat f;
+		private final long[] x, y;
+		private final int von, bis, koernung;
+
+		Reduktion(Gleitpunktformat f, long[] x, long[] y, int von, int bis,
+				int koernung) {
+			this.f = f;
+			this.x = x;
+			this.y = y;
+			this.von = von;
+			this.bis = bis;
+			this.koernung = koernung;
+		}
+
+		protected Long compute() {
+			if (bis - von <= Math.max(koernung, BLOCK))
+				return paarweise(f, x, y, von, bis);
+			int mitte = (von + bis) >>> 1;
+			Reduktion links = new Reduktion(f, x, y, von, mitte, koernung);
+			links.fork();
+			long rechts = new Reduktion(f, x, y, mitte, bis, koernung).compute();
+			return Gleitpunktzahl.add(f, links.join(), rechts);
+		}
+	}
+
+	/* paralleles axpy auf einem Teilbereich */
+	private static class Axpy extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Gleitpunktformat f;
+		private final long alpha;
+		private final long[] x, y;
+		private final int von, bis, koernung;
+
+		Axpy(Gleitpunktformat f, long alpha, long[] x, long[] y, int von,
+				int bis, int koernung) {
+			this.f = f;
+			this.alpha = alpha;
+			this.x = x;
+			this.y = y;
+			this.von = von;
+			this.bis = bis;
+			this.koernung = koernung;
+		}
+
+		protected void compute() {
+			if (bis - von <= Math.max(koernung, 1)) {
+				for (int i = von; i < bis; i++)
+					y[i] = Gleitpunktzahl.add(f, Gleitpunktzahl.mul(f, alpha, x[i]),
+							y[i]);
+				return;
+			}
+			int mitte = (von + bis) >>> 1;
+			invokeAll(new Axpy(f, alpha, x, y, von, mitte, koernung), new Axpy(
+					f, alpha, x, y, mitte, bis, koernung));
+		}
+	}
+
+	/**
+	 * Misst das Skalarprodukt zweier Vektoren mit 10^6 Zufallszahlen im
+	 * Format mit args[0] Exponenten- und args[1] Mantissenbits (Standard:
+	 * 8/11, etwa half precision mit groesserem Exponenten) und vergleicht es
+	 * mit dem Ergebnis in double
+	 */
+	public static void main(String[] args) {
+		int e = args.length > 1 ? Integer.parseInt(args[0]) : 8;
+		int m = args.length > 1 ? Integer.parseInt(args[1]) : 11;
+		Gleitpunktformat f = new Gleitpunktformat(e, m);
+		int n = 1000000;
+
+		Random random = new Random(42);
+		double[] a = new double[n];
+		double[] b = new double[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = random.nextDouble();
+			b[i] = random.nextDouble();
+		}
+		Gleitpunktvektor x = new Gleitpunktvektor(a, f);
+		Gleitpunktvektor y = new Gleitpunktvektor(b, f);
+		x.toDouble(a, 0, n);
+		y.toDouble(b, 0, n);
+		double exakt = 0;
+		for (int i = 0; i < n; i++)
+			exakt += a[i] * b[i];
+
+		for (int k = 0; k < 5; k++) {
+			long start = System.nanoTime();
+			long paarweise = dot(x, y, 0, n);
+			long mitte = System.nanoTime();
+			Gleitpunktvektor p = new Gleitpunktvektor(n, f);
+			p.mul(x, y, 0, n);
+			long sequentiell = summeSequentiell(p, 0, n);
+			long ende = System.nanoTime();
+			if (k == 4) {
+				System.out.println(f + ", n = " + n + ", double: " + exakt);
+				System.out.println(String.format(
+						"dot paarweise:    %.6e (%.1f ms)",
+						Gleitpunktzahl.zuDouble(f, paarweise),
+						(mitte - start) / 1e6));
+				System.out.println(String.format(
+						"dot sequentiell:  %.6e (%.1f ms)",
+						Gleitpunktzahl.zuDouble(f, sequentiell),
+						(ende - mitte) / 1e6));
+			}
+		}
+	}
+}
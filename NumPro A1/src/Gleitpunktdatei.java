@@ -0,0 +1,307 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Kompaktes Binaerformat fuer Folgen von Gleitpunktzahlen eines Formats.
+ *
+ * Eine Datei beginnt mit einem Kopf von KOPF = 32 Bytes: die Kennung "GPZV",
+ * die Version, sizeExponent, sizeMantisse (je ein int) und die Anzahl der
+ * Zahlen (long) in den Bytes 0 bis 23. Die Bytes 24 bis 31 sind fuer spaetere
+ * Versionen reserviert; Version 1 schreibt dort 0, und der Leser lehnt
+ * Dateien ab, in denen sie nicht 0 sind. Danach folgen die Zahlen lueckenlos
+ * mit je 1 + sizeExponent + sizeMantisse Bits in der gepackten Darstellung
+ * von Gleitpunktformat.pack, aufgefuellt auf ganze 64-Bit-Worte. Alle Werte
+ * werden little-endian abgelegt; Zahl i belegt die Bits [i*b, (i+1)*b) des
+ * Bitstroms, das niedrigste Bit eines Wortes zuerst.
+ *
+ * Die IEEE-Darstellung aus FastMath.gleitpunktzahlToIEEE waere ein Bit
+ * kuerzer, kann aber die 0 nicht von der kleinsten Zahl unterscheiden und
+ * passt nur fuer sizeExponent + sizeMantisse <= 32 in ein int. Die gepackte
+ * Darstellung ist dagegen verlustfrei, auch fuer -0 und NaN.
+ *
+ * Geschrieben wird mit einem Schreiber als Strom, gelesen mit einem Leser,
+ * der die Datei in den Speicher abbildet (auch Dateien mit mehr als 2 GB).
+ */
+public class Gleitpunktdatei {
+
+	/** Groesse des Kopfes in Bytes */
+	public static final int KOPF = 32;
+
+	/* Kennung "GPZV" und Version des Formats */
+	private static final int KENNUNG = 0x565a5047;
+	private static final int VERSION = 1;
+
+	/* Groesse der abgebildeten Teile einer Datei, ein Vielfaches von 8 */
+	private static final long SEGMENT = 1L << 30;
+
+	/** Liefert die Anzahl der Bits pro Zahl im Format f */
+	public static int bitsProZahl(Gleitpunktformat f) {
+		return 1 + f.getSizeExponent() + f.getSizeMantisse();
+	}
+
+	/** Liefert die Groesse einer Datei mit anzahl Zahlen im Format f in Bytes */
+	public static long dateigroesse(Gleitpunktformat f, long anzahl) {
+		return KOPF + 8 * ((anzahl * bitsProZahl(f) + 63) / 64);
+	}
+
+	/** schreibt x[von..bis) in die Datei datei */
+	public static void schreibe(Path datei, Gleitpunktvektor x, int von,
+			int bis) throws IOException {
+		try (Schreiber s = new Schreiber(datei, x.getFormat())) {
+			s.schreibe(x, von, bis);
+		}
+	}
+
+	/** liest alle Zahlen der Datei datei in einen neuen Vektor */
+	public static Gleitpunktvektor lese(Path datei) throws IOException {
+		try (Leser l = new Leser(datei)) {
+			if (l.getAnzahl() > Integer.MAX_VALUE)
+				throw new IOException("Zu viele Zahlen fuer einen Vektor: "
+						+ l.getAnzahl());
+			Gleitpunktvektor x = new Gleitpunktvektor((int) l.getAnzahl(),
+					l.getFormat());
+			l.lese(0, x, 0, x.length());
+			return x;
+		}
+	}
+
+	/**
+	 * Schreibt Zahlen eines Formats nacheinander in eine Datei. Die Anzahl im
+	 * Kopf wird beim Schliessen eingetragen; vorher ist die Datei unvollstaendig.
+	 */
+	public static class Schreiber implements Closeable {
+
+		private final Gleitpunktformat format;
+		private final FileChannel kanal;
+		private final ByteBuffer puffer;
+		private final int b;
+		private final long maske;
+
+		/* noch nicht geschriebene Bits und deren Anzahl */
+		private long akku = 0;
+		private int belegt = 0;
+		private long anzahl = 0;
+
+		/** legt die Datei datei (neu) an */
+		public Schreiber(Path datei, Gleitpunktformat format) throws IOException {
+			this.format = format;
+			this.b = bitsProZahl(format);
+			this.maske = (b == 64) ? -1L : (1L << b) - 1;
+			this.kanal = FileChannel.open(datei, StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			this.puffer = ByteBuffer.allocateDirect(1 << 16).order(
+					ByteOrder.LITTLE_ENDIAN);
+			kanal.position(KOPF);
+		}
+
+		/** Liefert das Format der Zahlen */
+		public Gleitpunktformat getFormat() {
+			return format;
+		}
+
+		/** Liefert die Anzahl der bisher geschriebenen Zahlen */
+		public long getAnzahl() {
+			return anzahl;
+		}
+
+		/** haengt die gepackte Zahl bits an */
+		public void schreibe(long bits) throws IOException {
+			long v = bits & maske;
+			akku |= v << belegt;
+			if (belegt + b >= 64) {
+				if (!puffer.hasRemaining())
+					leere();
+				puffer.putLong(akku);
+				akku = (belegt == 0) ? 0 : v >>> (64 - belegt);
+				belegt = belegt + b - 64;
+			} else {
+				belegt += b;
+			}
+			anzahl++;
+		}
+
+		/** haengt die Zahl x an */
+		public void schreibe(Gleitpunktzahl x) throws IOException {
+			pruefeFormat(x.getFormat());
+			schreibe(x.getBits());
+		}
+
+		/** haengt die Zahlen x[von..bis) an */
+		public void schreibe(Gleitpunktvektor x, int von, int bis)
+				throws IOException {
+			pruefeFormat(x.getFormat());
+			x.pruefeBereich(von, bis);
+			long[] daten = x.daten();
+			for (int i = von; i < bis; i++)
+				schreibe(daten[i]);
+		}
+
+		/** schreibt die restlichen Bits und den Kopf und schliesst die Datei */
+		public void close() throws IOException {
+			try {
+				if (belegt > 0) {
+					if (!puffer.hasRemaining())
+						leere();
+					puffer.putLong(akku);
+					belegt = 0;
+				}
+				leere();
+
+				ByteBuffer kopf = ByteBuffer.allocate(KOPF).order(
+						ByteOrder.LITTLE_ENDIAN);
+				kopf.putInt(KENNUNG).putInt(VERSION)
+						.putInt(format.getSizeExponent())
+						.putInt(format.getSizeMantisse()).putLong(anzahl);
+				kopf.clear();
+				while (kopf.hasRemaining())
+					kanal.write(kopf, kopf.position());
+			} finally {
+				kanal.close();
+			}
+		}
+
+		private void leere() throws IOException {
+			puffer.flip();
+			while (puffer.hasRemaining())
+				kanal.write(puffer);
+			puffer.clear();
+		}
+
+		private void pruefeFormat(Gleitpunktformat f) {
+			if (!format.equals(f))
+				throw new IllegalArgumentException("Verschiedene Formate: "
+						+ format + ", " + f);
+		}
+	}
+
+	/**
+	 * Liest eine Datei ueber eine Abbildung in den Speicher. Die Zahlen
+	 * werden erst beim Zugriff gelesen, es wird nichts geparst.
+	 */
+	public static class Leser implements Closeable {
+
+		private final Gleitpunktformat format;
+		private final FileChannel kanal;
+		private final MappedByteBuffer[] segmente;
+		private final long anzahl;
+		private final int b;
+		private final long maske;
+
+		/** oeffnet die Datei datei */
+		public Leser(Path datei) throws IOException {
+			this.kanal = FileChannel.open(datei, StandardOpenOption.READ);
+			try {
+				long groesse = kanal.size();
+				ByteBuffer kopf = ByteBuffer.allocate(KOPF).order(
+						ByteOrder.LITTLE_ENDIAN);
+				while (kopf.hasRemaining() && kanal.read(kopf, kopf.position()) >= 0)
+					;
+				kopf.flip();
+				if (kopf.remaining() < KOPF || kopf.getInt() != KENNUNG)
+					throw new IOException("Keine Gleitpunktdatei: " + datei);
+				int version = kopf.getInt();
+				if (version != VERSION)
+					throw new IOException("Unbekannte Version " + version + ": "
+							+ datei);
+				int e = kopf.getInt();
+				int m = kopf.getInt();
+				this.anzahl = kopf.getLong();
+				if (kopf.getLong() != 0)
+					throw new IOException("Reservierte Bytes im Kopf nicht 0: "
+							+ datei);
+				try {
+					this.format = new Gleitpunktformat(e, m);
+				} catch (IllegalArgumentException ex) {
+					throw new IOException("Ungueltiges Format in " + datei, ex);
+				}
+				if (anzahl < 0 || groesse < dateigroesse(format, anzahl))
+					throw new IOException("Datei zu kurz oder unvollstaendig: "
+							+ datei);
+				this.b = bitsProZahl(format);
+				this.maske = (b == 64) ? -1L : (1L << b) - 1;
+
+				long daten = dateigroesse(format, anzahl) - KOPF;
+				this.segmente = new MappedByteBuffer[(int) ((daten + SEGMENT - 1) / SEGMENT)];
+				for (int i = 0; i < segmente.length; i++) {
+					long start = i * SEGMENT;
+					segmente[i] = kanal.map(FileChannel.MapMode.READ_ONLY, KOPF
+							+ start, Math.min(SEGMENT, daten - start));
+					segmente[i].order(ByteOrder.LITTLE_ENDIAN);
+				}
+			} catch (IOException | RuntimeException ex) {
+				kanal.close();
+				throw ex;
+			}
+		}
+
+		/** Liefert das Format der Zahlen */
+		public Gleitpunktformat getFormat() {
+			return format;
+		}
+
+		/** Liefert die Anzahl der Zahlen */
+		public long getAnzahl() {
+			return anzahl;
+		}
+
+		/** Liefert die gepackte Darstellung der i-ten Zahl */
+		public long getBits(long i) {
+			if (i < 0 || i >= anzahl)
+				throw new IndexOutOfBoundsException("Index " + i
+						+ " ausserhalb von [0, " + anzahl + ")");
+			long bit = i * b;
+			long wort = bit >>> 6;
+			int versatz = (int) (bit & 63);
+			long v = wort(wort) >>> versatz;
+			if (versatz + b > 64)
+				v |= wort(wort + 1) << (64 - versatz);
+			return v & maske;
+		}
+
+		/** Liefert die i-te Zahl als neues Objekt */
+		public Gleitpunktzahl get(long i) {
+			Gleitpunktzahl x = new Gleitpunktzahl(format);
+			x.setBits(getBits(i));
+			return x;
+		}
+
+		/** Liefert den Double-Wert der i-ten Zahl */
+		public double getDouble(long i) {
+			return Gleitpunktzahl.zuDouble(format, getBits(i));
+		}
+
+		/**
+		 * liest die Zahlen von, ..., von + n - 1 nach ziel[zielVon..zielVon+n)
+		 */
+		public void lese(long von, Gleitpunktvektor ziel, int zielVon, int n) {
+			if (!format.equals(ziel.getFormat()))
+				throw new IllegalArgumentException("Verschiedene Formate: "
+						+ format + ", " + ziel.getFormat());
+			ziel.pruefeBereich(zielVon, zielVon + n);
+			if (von < 0 || von + n > anzahl)
+				throw new IndexOutOfBoundsException("Bereich [" + von + ", "
+						+ (von + n) + ") ausserhalb von [0, " + anzahl + ")");
+			long[] daten = ziel.daten();
+			for (int k = 0; k < n; k++)
+				daten[zielVon + k] = getBits(von + k);
+		}
+
+		public void close() throws IOException {
+			kanal.close();
+		}
+
+		/* Liefert das 64-Bit-Wort mit Index w der Daten */
+		private long wort(long w) {
+			long byteIndex = w << 3;
+			return segmente[(int) (byteIndex / SEGMENT)]
+					.getLong((int) (byteIndex % SEGMENT));
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ * Beschreibt ein Gleitpunktformat, d.h. die Anzahl der Bits fuer Mantisse und
+ * Exponent sowie die daraus abgeleiteten Groessen maxExponent und expOffset.
+ *
+ * Ein Format ist unveraenderlich und kann daher von beliebig vielen
+ * Gleitpunktzahlen und Threads gleichzeitig verwendet werden. Damit lassen
+ * sich in einem Prozess mehrere Formate nebeneinander simulieren.
+ */
+public final class Gleitpunktformat {
+
+	/* Anzahl der Bits fuer Mantisse und Exponent */
+	private final int sizeMantisse;
+	private final int sizeExponent;
+
+	/*
+	 * Aus der Anzahl an Bits fuer den Exponenten laesst sich der maximale
+	 * Exponent und der Offset berechnen
+	 */
+	private final int maxExponent;
+	private final int expOffset;
+
+	/* Masken fuer die gepackte Darstellung, siehe pack */
+	private final long mantissenMaske;
+	private final long vorzeichenBit;
+
+	/*
+	 * fuehrende 1 der Mantisse und Maske der Mantisse ohne fuehrende 1, wie
+	 * in der IEEE-Darstellung von FastMath
+	 */
+	private final long fuehrendeEins;
+	private final long ieeeMantissenMaske;
+
+	/** maximale Anzahl der Bits der Mantisse, siehe Gleitpunktzahl.add */
+	public static final int MAX_MANTISSE = 60;
+
+	/**
+	 * erzeugt ein Format mit abe Bits fuer den Exponenten und abm Bits fuer
+	 * die Mantisse (inklusive fuehrender 1). Die gepackte Darstellung muss in
+	 * ein long passen, d.h. abe + abm <= 63.
+	 */
+	public Gleitpunktformat(int abe, int abm) {
+		if (abe < 1 || abe > 30)
+			throw new IllegalArgumentException(
+					"Anzahl der Exponentenbits muss in [1, 30] liegen: " + abe);
+		if (abm < 1 || abm > MAX_MANTISSE)
+			throw new IllegalArgumentException(
+					"Anzahl der Mantissenbits muss in [1, " + MAX_MANTISSE
+							+ "] liegen: " + abm);
+		if (abe + abm > 63)
+			throw new IllegalArgumentException(
+					"Gepackte Darstellung passt nicht in ein long: " + abe
+							+ " + " + abm + " > 63");
+
+		this.sizeExponent = abe;
+		this.sizeMantisse = abm;
+		this.maxExponent = (1 << abe) - 1;
+		this.expOffset = (1 << (abe - 1)) - 1;
+		this.mantissenMaske = (1L << abm) - 1;
+		this.vorzeichenBit = 1L << (abe + abm);
+		this.fuehrendeEins = 1L << (abm - 1);
+		this.ieeeMantissenMaske = fuehrendeEins - 1;
+	}
+
+	/** Liefert die Anzahl der Bits der Mantisse */
+	public int getSizeMantisse() {
+		return sizeMantisse;
+	}
+
+	/** Liefert die Anzahl der Bits des Exponenten */
+	public int getSizeExponent() {
+		return sizeExponent;
+	}
+
+	/** Liefert den maximalen Exponenten (reserviert fuer Inf und NaN) */
+	public int getMaxExponent() {
+		return maxExponent;
+	}
+
+	/** Liefert den Offset (Bias) des Exponenten */
+	public int getExpOffset() {
+		return expOffset;
+	}
+
+	/** Liefert die fuehrende 1 einer normalisierten Mantisse */
+	public long getFuehrendeEins() {
+		return fuehrendeEins;
+	}
+
+	/** Liefert die Maske der Mantissenbits ohne fuehrende 1 */
+	public long getIEEEMantissenMaske() {
+		return ieeeMantissenMaske;
+	}
+
+	/**
+	 * Packt Vorzeichen, Exponent und Mantisse einer normalisierten
+	 * Gleitpunktzahl in ein long. Die Reihenfolge [Vorzeichen, Exponent,
+	 * Mantisse] entspricht FastMath.gleitpunktzahlToIEEE, allerdings wird die
+	 * fuehrende 1 der Mantisse mitgespeichert: nur so sind die 0 (Mantisse 0)
+	 * und die kleinste Zahl 1,0 * 2^(0-expOffset) unterscheidbar. Die 0 wird
+	 * damit zu 0L. Belegt werden 1 + sizeExponent + sizeMantisse Bits.
+	 */
+	public long pack(boolean vorzeichen, int exponent, long mantisse) {
+		long bits = (mantisse & mantissenMaske)
+				| ((long) (exponent & maxExponent) << sizeMantisse);
+		if (vorzeichen)
+			bits |= vorzeichenBit;
+		return bits;
+	}
+
+	/** Liefert das Vorzeichen der gepackten Zahl bits (true = "-1") */
+	public boolean vorzeichen(long bits) {
+		return (bits & vorzeichenBit) != 0;
+	}
+
+	/** Liefert den Exponenten der gepackten Zahl bits */
+	public int exponent(long bits) {
+		return (int) (bits >>> sizeMantisse) & maxExponent;
+	}
+
+	/** Liefert die Mantisse (mit fuehrender 1) der gepackten Zahl bits */
+	public long mantisse(long bits) {
+		return bits & mantissenMaske;
+	}
+
+	/** Liefert das Bit des Vorzeichens in der gepackten Darstellung */
+	public long vorzeichenBit() {
+		return vorzeichenBit;
+	}
+
+	public boolean equals(Object o) {
+		if (!(o instanceof Gleitpunktformat))
+			return false;
+		Gleitpunktformat f = (Gleitpunktformat) o;
+		return f.sizeExponent == sizeExponent && f.sizeMantisse == sizeMantisse;
+	}
+
+	public int hashCode() {
+		return 31 * sizeExponent + sizeMantisse;
+	}
+
+	public String toString() {
+		return "Gleitpunktformat(" + sizeExponent + "/" + sizeMantisse + ")";
+	}
+}
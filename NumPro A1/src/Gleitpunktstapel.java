@@ -0,0 +1,227 @@
+/**
+ * Stapelkerne (batch): add, sub und die Umwandlung von und nach double fuer
+ * ganze Felder gepackter Zahlen (siehe Gleitpunktformat.pack). Die
+ * Ergebnisse sind bitweise dieselben wie die der Einzelkerne in
+ * Gleitpunktzahl.
+ *
+ * Der Rumpf der Schleifen ist fuer den Normalfall (beide Zahlen
+ * normalisiert, endlich und nicht 0) ohne Spruenge geschrieben: Vertauschen,
+ * Angleichen, Vorzeichen, Runden und Ueber-/Unterlauf werden mit min, max,
+ * abs und Auswahl (?:) berechnet, die der JIT zu bedingten Befehlen
+ * uebersetzt. Damit entfallen die schlecht vorhersagbaren Spruenge der
+ * Einzelkerne; jeder Schritt entspricht einer elementweisen Operation einer
+ * SIMD-Einheit (Schieben, Maskieren, Vergleichen, fuehrende Nullen zaehlen,
+ * Auswaehlen). Alle anderen Faelle (0, -0, Inf, NaN, nicht normalisierte
+ * Mantissen, Formate mit mehr als 52 bzw. 53 Mantissenbits bei der
+ * Umwandlung) gehen an die Einzelkerne in Gleitpunktzahl.
+ *
+ * add und sub rechnen dieselben Schritte mit der Vector API auf ganzen
+ * Vektoren, wenn das Modul jdk.incubator.vector geladen ist (siehe
+ * Gleitpunktstapel_simd, dort auch die Aufrufe von javac und java); die
+ * skalare Schleife berechnet dann nur noch den Rest am Ende.
+ */
+public class Gleitpunktstapel {
+
+	private static final long DOUBLE_MANTISSE = 0xfffffffffffffL;
+
+	/* true, wenn die Vector API (--add-modules jdk.incubator.vector) da ist */
+	private static final boolean VECTOR_API = ModuleLayer.boot()
+			.findModule("jdk.incubator.vector").isPresent();
+
+	/**
+	 * Liefert true, wenn add und sub im Format f mit der Vector API rechnen,
+	 * d.h. das Modul jdk.incubator.vector geladen ist und f hoechstens
+	 * Gleitpunktstapel_simd.MAX_MANTISSE Mantissenbits hat
+	 */
+	public static boolean verwendetVectorApi(Gleitpunktformat f) {
+		return VECTOR_API
+				&& f.getSizeMantisse() <= Gleitpunktstapel_simd.MAX_MANTISSE;
+	}
+
+	/**
+	 * berechnet ziel[i] = a[i] + b[i] im Format f fuer i aus [von, bis) wie
+	 * Gleitpunktzahl.add. ziel darf a oder b sein.
+	 */
+	public static void add(Gleitpunktformat f, long[] a, long[] b,
+			long[] ziel, int von, int bis) {
+		addiere(f, a, b, 0L, ziel, von, bis);
+	}
+
+	/**
+	 * berechnet ziel[i] = a[i] - b[i] im Format f fuer i aus [von, bis) wie
+	 * Gleitpunktzahl.sub. ziel darf a oder b sein.
+	 */
+	public static void sub(Gleitpunktformat f, long[] a, long[] b,
+			long[] ziel, int von, int bis) {
+		addiere(f, a, b, f.vorzeichenBit(), ziel, von, bis);
+	}
+
+	/* ziel[i] = a[i] + (b[i] ^ negiere), siehe Gleitpunktzahl.add */
+	private static void addiere(Gleitpunktformat f, long[] a, long[] b,
+			long negiere, long[] ziel, int von, int bis) {
+		final int sizeMantisse = f.getSizeMantisse();
+		final int maxExponent = f.getMaxExponent();
+		final long maske = f.getFuehrendeEins() | f.getIEEEMantissenMaske();
+		final long eins = f.getFuehrendeEins();
+		final long vorzeichenBit = f.vorzeichenBit();
+
+		if (verwendetVectorApi(f))
+			von = Gleitpunktstapel_simd.addiere(f, a, b, negiere, ziel, von, bis);
+
+		for (int i = von; i < bis; i++) {
+			long x = a[i];
+			long y = b[i] ^ negiere;
+			if (istSonderfall(x, y, sizeMantisse, maxExponent, maske, eins)) {
+				ziel[i] = einzeln(f, x, y, negiere);
+				continue;
+			}
+			long mx = x & maske;
+			long my = y & maske;
+			int ex = (int) (x >>> sizeMantisse) & maxExponent;
+			int ey = (int) (y >>> sizeMantisse) & maxExponent;
+
+			/* a ist die Zahl mit dem groesseren Exponenten */
+			boolean tausch = ey > ex;
+			int ea = Math.max(ex, ey);
+			long ma = (tausch ? my : mx) << 3;
+			long mb = (tausch ? mx : my) << 3;
+			long va = (tausch ? y : x) & vorzeichenBit;
+			long vb = (tausch ? x : y) & vorzeichenBit;
+
+			/*
+			 * mb angleichen; ab d = 63 bleibt wie bei d >= 64 in add nur das
+			 * Sticky-Bit, da mb hoechstens 63 Bits hat
+			 */
+			int d = Math.min(Math.abs(ex - ey), 63);
+			long sticky = (mb & ((1L << d) - 1)) != 0 ? 1 : 0;
+			mb = (mb >>> d) | sticky;
+
+			long differenz = ma - mb;
+			boolean gleich = va == vb;
+			long mantisse = gleich ? ma + mb : Math.abs(differenz);
+			long vorzeichen = (gleich || differenz >= 0) ? va : vb;
+
+			/*
+			 * normalisieren wie Gleitpunktzahl.normalisiereEndlich: nach links
+			 * um n oder nach rechts bis zur Rundungsstelle, dann runden
+			 */
+			int n = Long.numberOfLeadingZeros(mantisse) - (64 - sizeMantisse);
+			long m = (mantisse << Math.max(n, 0)) >>> Math.max(-n - 1, 0);
+			m = (n < 0) ? (m >>> 1) + (m & 1) : m;
+			int uebertrag = (int) (m >>> sizeMantisse);
+			m >>>= uebertrag;
+			int exponent = ea - 3 - n + uebertrag;
+
+			ziel[i] = ergebnis(vorzeichen, exponent, m, mantisse == 0,
+					sizeMantisse, maxExponent, maske, eins);
+		}
+	}
+
+	/*
+	 * true, wenn x oder y 0, Inf, NaN oder nicht normalisiert ist und addiere
+	 * die Einzelkerne verwenden muss
+	 */
+	static boolean istSonderfall(long x, long y, int sizeMantisse,
+			long maxExponent, long maske, long eins) {
+		return (x & maske) < eins || (y & maske) < eins
+				|| ((x >>> sizeMantisse) & maxExponent) == maxExponent
+				|| ((y >>> sizeMantisse) & maxExponent) == maxExponent;
+	}
+
+	/*
+	 * Sonderfall von addiere mit y = b[i] ^ negiere: sub ueber
+	 * Gleitpunktzahl.sub, damit 0 - 0 nicht -0 ergibt
+	 */
+	static long einzeln(Gleitpunktformat f, long x, long y, long negiere) {
+		return (negiere == 0) ? Gleitpunktzahl.add(f, x, y)
+				: Gleitpunktzahl.sub(f, x, y ^ negiere);
+	}
+
+	/**
+	 * wandelt quelle[von..bis) wie Gleitpunktzahl.ausDouble in die gepackte
+	 * Darstellung im Format f um und schreibt sie nach ziel[von..bis)
+	 */
+	public static void ausDouble(Gleitpunktformat f, double[] quelle,
+			long[] ziel, int von, int bis) {
+		final int sizeMantisse = f.getSizeMantisse();
+		if (sizeMantisse > 52) {
+			Gleitpunktzahl.ausDouble(f, quelle, ziel, von, bis);
+			return;
+		}
+		final int maxExponent = f.getMaxExponent();
+		final int expOffset = f.getExpOffset();
+		final long maske = f.getFuehrendeEins() | f.getIEEEMantissenMaske();
+		final long eins = f.getFuehrendeEins();
+		final long vorzeichenBit = f.vorzeichenBit();
+
+		for (int i = von; i < bis; i++) {
+			long bits = Double.doubleToRawLongBits(quelle[i]);
+			int exp = (int) (bits >>> 52) & 0x7ff;
+			if (exp == 0 || exp == 0x7ff) {
+				/* 0, subnormale Zahlen, Inf und NaN */
+				ziel[i] = Gleitpunktzahl.ausDouble(f, quelle[i]);
+				continue;
+			}
+
+			/* Mantisse mit Rundungsstelle hat sizeMantisse + 1 Stellen */
+			long signifikand = (bits & DOUBLE_MANTISSE) | (1L << 52);
+			long m = signifikand >>> (52 - sizeMantisse);
+			m = (m >>> 1) + (m & 1);
+			int uebertrag = (int) (m >>> sizeMantisse);
+			m >>>= uebertrag;
+			int exponent = exp - 1023 + expOffset + uebertrag;
+
+			ziel[i] = ergebnis(bits < 0 ? vorzeichenBit : 0, exponent, m,
+					false, sizeMantisse, maxExponent, maske, eins);
+		}
+	}
+
+	/**
+	 * schreibt die Double-Werte der gepackten Zahlen quelle[von..bis) im
+	 * Format f wie Gleitpunktzahl.zuDouble nach ziel[von..bis)
+	 */
+	public static void zuDouble(Gleitpunktformat f, long[] quelle,
+			double[] ziel, int von, int bis) {
+		final int sizeMantisse = f.getSizeMantisse();
+		if (sizeMantisse > 53) {
+			Gleitpunktzahl.zuDouble(f, quelle, ziel, von, bis);
+			return;
+		}
+		final int maxExponent = f.getMaxExponent();
+		final int expOffset = f.getExpOffset();
+		final long maske = f.getFuehrendeEins() | f.getIEEEMantissenMaske();
+		final long eins = f.getFuehrendeEins();
+		final int vorzeichenStelle = f.getSizeExponent() + sizeMantisse;
+
+		for (int i = von; i < bis; i++) {
+			long bits = quelle[i];
+			long m = bits & maske;
+			int exponent = (int) (bits >>> sizeMantisse) & maxExponent;
+			int e = exponent - expOffset;
+			if (m < eins || exponent == maxExponent || e < -1022 || e > 1023) {
+				/* 0, -0, Inf, NaN und Unter-/Ueberlauf im double-Format */
+				ziel[i] = Gleitpunktzahl.zuDouble(f, bits);
+				continue;
+			}
+			ziel[i] = Double.longBitsToDouble(((long) (e + 1023) << 52)
+					| ((m << (53 - sizeMantisse)) & DOUBLE_MANTISSE)
+					| ((bits >>> vorzeichenStelle) << 63));
+		}
+	}
+
+	/*
+	 * packt ein normalisiertes und gerundetes Ergebnis wie das Ende von
+	 * Gleitpunktzahl.normalisiereEndlich: Ueberlauf wird zu Inf, der
+	 * Exponent -1 zur kleinsten Zahl, kleinere Exponenten und null zu 0
+	 */
+	private static long ergebnis(long vorzeichen, int exponent, long m,
+			boolean istNull, int sizeMantisse, int maxExponent, long maske,
+			long eins) {
+		long r = vorzeichen | ((long) (exponent & maxExponent) << sizeMantisse)
+				| (m & maske);
+		r = (exponent >= maxExponent) ? vorzeichen
+				| ((long) maxExponent << sizeMantisse) : r;
+		r = (exponent == -1) ? vorzeichen | eins : r;
+		return (exponent < -1 || istNull) ? 0L : r;
+	}
+}
@@ -0,0 +1,140 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD-Fassung des Stapelkerns add/sub aus Gleitpunktstapel mit der Vector
+ * API (jdk.incubator.vector). Jeder Schritt der Schleife in
+ * Gleitpunktstapel.addiere ist hier eine elementweise Operation auf
+ * LongVector.SPECIES_PREFERRED Zahlen zugleich (8 bei AVX-512). Die
+ * Sonderfaelle (0, -0, Inf, NaN, nicht normalisierte Mantissen) werden mit
+ * einer Maske markiert; nur diese Elemente werden danach einzeln mit den
+ * Kernen in Gleitpunktzahl berechnet.
+ *
+ * Das Modul ist in Java 17 noch im Inkubator und muss beim Uebersetzen und
+ * beim Ausfuehren angegeben werden:
+ *
+ * javac --add-modules jdk.incubator.vector *.java
+ * java --add-modules jdk.incubator.vector Test_Gleitpunktkerne
+ *
+ * Fehlt das Modul zur Laufzeit, wird diese Klasse nicht geladen und
+ * Gleitpunktstapel rechnet mit der skalaren Schleife (siehe
+ * Gleitpunktstapel.verwendetVectorApi).
+ *
+ * Die fuehrenden Nullen zaehlt die Vector API in Java 17 noch nicht; sie
+ * werden ueber den Exponenten der Umwandlung nach double bestimmt. Das ist
+ * nur exakt, solange die Zwischenergebnisse hoechstens 53 Stellen haben,
+ * d.h. fuer sizeMantisse <= MAX_MANTISSE.
+ */
+class Gleitpunktstapel_simd {
+
+	/** groesste Mantissenlaenge, fuer die addiere verwendet werden kann */
+	static final int MAX_MANTISSE = 48;
+
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+	/**
+	 * berechnet ziel[i] = a[i] + (b[i] ^ negiere) wie Gleitpunktstapel.addiere
+	 * fuer ganze Vektoren ab von und liefert den ersten Index, der nicht mehr
+	 * berechnet wurde (der Rest passt nicht in einen ganzen Vektor)
+	 */
+	static int addiere(Gleitpunktformat f, long[] a, long[] b, long negiere,
+			long[] ziel, int von, int bis) {
+		final int sizeMantisse = f.getSizeMantisse();
+		final long maxExponent = f.getMaxExponent();
+		final long maske = f.getFuehrendeEins() | f.getIEEEMantissenMaske();
+		final long eins = f.getFuehrendeEins();
+		final long vorzeichenBit = f.vorzeichenBit();
+		final LongVector null_ = LongVector.zero(LONGS);
+		final LongVector einsen = LongVector.broadcast(LONGS, 1L);
+		/* Zahlen eines Vektors mit Sonderfaellen, fuer die Einzelkerne */
+		final long[] xs = new long[LONGS.length()];
+		final long[] ys = new long[LONGS.length()];
+
+		int i = von;
+		for (; i + LONGS.length() <= bis; i += LONGS.length()) {
+			LongVector x = LongVector.fromArray(LONGS, a, i);
+			LongVector y = LongVector.fromArray(LONGS, b, i).lanewise(
+					VectorOperators.XOR, negiere);
+			LongVector mx = x.and(maske);
+			LongVector my = y.and(maske);
+			LongVector ex = x.lanewise(VectorOperators.LSHR, sizeMantisse).and(
+					maxExponent);
+			LongVector ey = y.lanewise(VectorOperators.LSHR, sizeMantisse).and(
+					maxExponent);
+			VectorMask<Long> sonderfall = mx.compare(VectorOperators.LT, eins)
+					.or(my.compare(VectorOperators.LT, eins))
+					.or(ex.compare(VectorOperators.EQ, maxExponent))
+					.or(ey.compare(VectorOperators.EQ, maxExponent));
+
+			/* a ist die Zahl mit dem groesseren Exponenten */
+			VectorMask<Long> tausch = ey.compare(VectorOperators.GT, ex);
+			LongVector ea = ex.max(ey);
+			LongVector ma = mx.blend(my, tausch).lanewise(VectorOperators.LSHL, 3);
+			LongVector mb = my.blend(mx, tausch).lanewise(VectorOperators.LSHL, 3);
+			LongVector va = x.blend(y, tausch).and(vorzeichenBit);
+			LongVector vb = y.blend(x, tausch).and(vorzeichenBit);
+
+			/* mb angleichen, mit Sticky-Bit */
+			LongVector d = ex.sub(ey).abs().min(63);
+			LongVector rest = mb.and(einsen.lanewise(VectorOperators.LSHL, d)
+					.sub(1));
+			mb = mb.lanewise(VectorOperators.LSHR, d).or(
+					einsen.blend(null_, rest.compare(VectorOperators.EQ, 0)));
+
+			LongVector differenz = ma.sub(mb);
+			VectorMask<Long> gleich = va.compare(VectorOperators.EQ, vb);
+			LongVector mantisse = differenz.abs().blend(ma.add(mb), gleich);
+			LongVector vorzeichen = vb.blend(va,
+					gleich.or(differenz.compare(VectorOperators.GE, 0)));
+
+			/*
+			 * n = fuehrende Nullen - (64 - sizeMantisse); die Stelle der
+			 * fuehrenden 1 ist der Exponent von (double) mantisse
+			 */
+			LongVector hoechsteStelle = ((DoubleVector) mantisse.convert(
+					VectorOperators.L2D, 0)).reinterpretAsLongs()
+					.lanewise(VectorOperators.LSHR, 52).sub(1023);
+			LongVector n = hoechsteStelle.neg().add(sizeMantisse - 1);
+
+			/* normalisieren und runden wie Gleitpunktstapel.addiere */
+			LongVector m = mantisse.lanewise(VectorOperators.LSHL, n.max(0))
+					.lanewise(VectorOperators.LSHR, n.neg().sub(1).max(0));
+			VectorMask<Long> rechts = n.compare(VectorOperators.LT, 0);
+			m = m.blend(m.lanewise(VectorOperators.LSHR, 1).add(m.and(1)), rechts);
+			LongVector uebertrag = m.lanewise(VectorOperators.LSHR, sizeMantisse);
+			m = m.lanewise(VectorOperators.LSHR, uebertrag);
+			LongVector exponent = ea.sub(3).sub(n).add(uebertrag);
+
+			/* packen wie Gleitpunktstapel.ergebnis */
+			LongVector r = vorzeichen.or(
+					exponent.and(maxExponent).lanewise(VectorOperators.LSHL,
+							sizeMantisse)).or(m.and(maske));
+			r = r.blend(vorzeichen.or(maxExponent << sizeMantisse),
+					exponent.compare(VectorOperators.GE, maxExponent));
+			r = r.blend(vorzeichen.or(eins),
+					exponent.compare(VectorOperators.EQ, -1));
+			r = r.blend(null_, exponent.compare(VectorOperators.LT, -1).or(
+					mantisse.compare(VectorOperators.EQ, 0)));
+			r.intoArray(ziel, i);
+
+			/*
+			 * Sonderfaelle einzeln; a und b koennen schon ueberschrieben sein.
+			 * Die Maske wird skalar nachgerechnet, da der Zugriff auf einzelne
+			 * Elemente (lane, laneIsSet) in Java 17 nicht uebersetzt wird.
+			 */
+			if (sonderfall.anyTrue()) {
+				x.intoArray(xs, 0);
+				y.intoArray(ys, 0);
+				for (int k = 0; k < xs.length; k++)
+					if (Gleitpunktstapel.istSonderfall(xs[k], ys[k],
+							sizeMantisse, maxExponent, maske, eins))
+						ziel[i + k] = Gleitpunktstapel.einzeln(f, xs[k], ys[k],
+								negiere);
+			}
+		}
+		return i;
+	}
+}
@@ -0,0 +1,184 @@
+import java.util.stream.IntStream;
+
+/**
+ * Tabellengesteuerte Arithmetik fuer sehr kleine Gleitpunktformate.
+ *
+ * Fuer Formate mit hoechstens maxBits = sizeExponent + sizeMantisse Bits
+ * werden die Ergebnisse von add, sub, toDouble und FastMath.invSqrt fuer alle
+ * darstellbaren Zahlen einmal berechnet und in Tabellen abgelegt. Danach
+ * kostet jede Operation nur noch einen Feldzugriff.
+ *
+ * Die Zahlen werden dazu ueber einen Index adressiert: der Index ist die
+ * IEEE-Bitfolge aus FastMath.gleitpunktzahlToIEEE, die 0 bekommt den Index
+ * hinter allen IEEE-Bitfolgen. Das Bitmuster -0 (nur Vorzeichenbit) wird
+ * wie 0 behandelt, Gleitpunktzahl.sub liefert es nicht. Alle NaN werden auf
+ * ein NaN abgebildet.
+ *
+ * Fuer das Format 4/8 aus Test_FastInverse belegt die Additionstabelle etwa
+ * 34 MB; jedes weitere Bit vervierfacht den Speicherbedarf.
+ */
+public class Gleitpunkttabelle {
+
+	/** Standardwert fuer die maximale Anzahl an Bits eines Formats */
+	public static final int MAX_BITS = 12;
+
+	private final Gleitpunktformat format;
+
+	/* Anzahl der Indizes und der Index von 0 */
+	private final int anzahl;
+	private final int nullIndex;
+
+	/* Index -> gepackte Zahl, Double-Wert, Index der negierten Zahl */
+	private final long[] bits;
+	private final double[] werte;
+	private final char[] negiert;
+
+	/* Ergebnisindizes von add (anzahl x anzahl, zeilenweise) und invSqrt */
+	private final char[] summe;
+	private final char[] invSqrt;
+
+	/**
+	 * Liefert true, wenn fuer das Format f Tabellen mit hoechstens maxBits
+	 * Bits angelegt werden koennen
+	 */
+	public static boolean moeglich(Gleitpunktformat f, int maxBits) {
+		int b = f.getSizeExponent() + f.getSizeMantisse();
+		return f.getSizeMantisse() >= 2 && b <= maxBits && b <= 15;
+	}
+
+	/**
+	 * erzeugt die Tabellen fuer das Format f. invSqrt wird mit der Konstanten
+	 * magic berechnet. Die Additionstabelle wird parallel aufgebaut.
+	 *
+	 * @throws IllegalArgumentException
+	 *             falls das Format mehr als maxBits Bits hat (oder mehr als
+	 *             15, da die Indizes als char abgelegt werden) oder weniger als
+	 *             2 Mantissenbits
+	 */
+	public Gleitpunkttabelle(Gleitpunktformat f, int magic, int maxBits) {
+		if (!moeglich(f, maxBits))
+			throw new IllegalArgumentException("Keine Tabellen fuer " + f
+					+ " mit hoechstens " + maxBits + " Bits");
+
+		this.format = f;
+		int ieeeAnzahl = 1 << (f.getSizeExponent() + f.getSizeMantisse());
+		this.nullIndex = ieeeAnzahl;
+		this.anzahl = ieeeAnzahl + 1;
+
+		this.bits = new long[anzahl];
+		this.werte = new double[anzahl];
+		this.negiert = new char[anzahl];
+		this.invSqrt = new char[anzahl];
+		for (int i = 0; i < anzahl; i++) {
+			if (i == nullIndex)
+				bits[i] = 0L;
+			else
+				bits[i] = ausIEEE(i);
+		}
+		for (int i = 0; i < anzahl; i++) {
+			werte[i] = Gleitpunktzahl.zuDouble(f, bits[i]);
+			negiert[i] = (char) index(Gleitpunktzahl.sub(f, 0L, bits[i]));
+			invSqrt[i] = (char) index(FastMath.invSqrt(f, bits[i], magic));
+		}
+
+		this.summe = new char[anzahl * anzahl];
+		IntStream.range(0, anzahl).parallel().forEach(i -> {
+			long a = bits[i];
+			int zeile = i * anzahl;
+			for (int j = 0; j < anzahl; j++)
+				summe[zeile + j] = (char) index(Gleitpunktzahl.add(format, a,
+						bits[j]));
+		});
+	}
+
+	/** erzeugt die Tabellen fuer das Format f mit hoechstens MAX_BITS Bits */
+	public Gleitpunkttabelle(Gleitpunktformat f, int magic) {
+		this(f, magic, MAX_BITS);
+	}
+
+	/** Liefert das Format der Tabellen */
+	public Gleitpunktformat getFormat() {
+		return format;
+	}
+
+	/** Liefert die Anzahl der Indizes, d.h. der darstellbaren Zahlen */
+	public int getAnzahl() {
+		return anzahl;
+	}
+
+	/** Liefert den Index der gepackten Zahl b */
+	public int index(long b) {
+		if (b == 0L || b == format.vorzeichenBit())
+			return nullIndex;
+		return FastMath.gleitpunktzahlToIEEE(format, kanonisch(b));
+	}
+
+	/** Liefert die gepackte Zahl zum Index i */
+	public long bits(int i) {
+		return bits[i];
+	}
+
+	/** Liefert den Index von a + b */
+	public int addIndex(int a, int b) {
+		return summe[a * anzahl + b];
+	}
+
+	/** Liefert den Index von a - b */
+	public int subIndex(int a, int b) {
+		return summe[a * anzahl + negiert[b]];
+	}
+
+	/** Liefert den Index von FastMath.invSqrt(a) */
+	public int invSqrtIndex(int a) {
+		return invSqrt[a];
+	}
+
+	/** Liefert den Double-Wert der Zahl mit Index a */
+	public double zuDoubleIndex(int a) {
+		return werte[a];
+	}
+
+	/** addiert die gepackten Zahlen a und b, wie Gleitpunktzahl.add */
+	public long add(long a, long b) {
+		return bits[addIndex(index(a), index(b))];
+	}
+
+	/** subtrahiert die gepackte Zahl b von a, wie Gleitpunktzahl.sub */
+	public long sub(long a, long b) {
+		return bits[subIndex(index(a), index(b))];
+	}
+
+	/** Liefert FastMath.invSqrt der gepackten Zahl a */
+	public long invSqrt(long a) {
+		return bits[invSqrtIndex(index(a))];
+	}
+
+	/** Liefert den Double-Wert der gepackten Zahl a */
+	public double zuDouble(long a) {
+		return werte[index(a)];
+	}
+
+	/*
+	 * Liefert die gepackte Zahl zur IEEE-Bitfolge ieee. Anders als
+	 * FastMath.iEEEToBits wird beim maximalen Exponenten keine fuehrende 1
+	 * eingetragen, so dass Inf und NaN wie in Gleitpunktzahl entstehen.
+	 */
+	private long ausIEEE(int ieee) {
+		long b = FastMath.iEEEToBits(format, ieee);
+		if (format.exponent(b) == format.getMaxExponent()) {
+			if ((ieee & format.getIEEEMantissenMaske()) == 0)
+				return format.pack(format.vorzeichen(b),
+						format.getMaxExponent(), 0);
+			return kanonisch(b);
+		}
+		return b;
+	}
+
+	/* bildet alle NaN auf das NaN aus Gleitpunktzahl.setNaN ab */
+	private long kanonisch(long b) {
+		if (format.exponent(b) == format.getMaxExponent()
+				&& format.mantisse(b) != 0)
+			return format.pack(false, format.getMaxExponent(), 1);
+		return b;
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * Ein Feld von Gleitpunktzahlen eines festen Formats, die gepackt (siehe
+ * Gleitpunktformat.pack) in einem long[] abgelegt sind. Anstatt fuer jede Zahl
+ * ein eigenes Gleitpunktzahl-Objekt anzulegen, arbeiten die Massenoperationen
+ * direkt auf den gepackten Werten und legen keine Objekte an. add, sub und
+ * die Umwandlungen verwenden die Stapelkerne aus Gleitpunktstapel.
+ *
+ * Die Operationen arbeiten jeweils auf dem Indexbereich [von, bis).
+ */
+public class Gleitpunktvektor {
+
+	/* Format aller Zahlen dieses Vektors */
+	private final Gleitpunktformat format;
+
+	/* gepackte Zahlen */
+	private final long[] daten;
+
+	/** erzeugt einen Vektor aus n Nullen im Format format */
+	public Gleitpunktvektor(int n, Gleitpunktformat format) {
+		this.format = format;
+		this.daten = new long[n];
+	}
+
+	/** erzeugt einen Vektor im Format format mit den Werten aus werte */
+	public Gleitpunktvektor(double[] werte, Gleitpunktformat format) {
+		this(werte.length, format);
+		fromDouble(werte, 0, werte.length);
+	}
+
+	/** Liefert die Anzahl der Zahlen */
+	public int length() {
+		return daten.length;
+	}
+
+	/** Liefert das Format der Zahlen */
+	public Gleitpunktformat getFormat() {
+		return format;
+	}
+
+	/** Liefert die gepackte Darstellung der i-ten Zahl */
+	public long getBits(int i) {
+		return daten[i];
+	}
+
+	/** setzt die i-te Zahl auf die gepackte Darstellung bits */
+	public void setBits(int i, long bits) {
+		daten[i] = bits;
+	}
+
+	/** Liefert die i-te Zahl als neues Objekt */
+	public Gleitpunktzahl get(int i) {
+		Gleitpunktzahl x = new Gleitpunktzahl(format);
+		x.setBits(daten[i]);
+		return x;
+	}
+
+	/** setzt die i-te Zahl auf den Wert von x */
+	public void set(int i, Gleitpunktzahl x) {
+		pruefeFormat(x.getFormat());
+		daten[i] = x.getBits();
+	}
+
+	/** Liefert den Double-Wert der i-ten Zahl */
+	public double getDouble(int i) {
+		return Gleitpunktzahl.zuDouble(format, daten[i]);
+	}
+
+	/** setzt die i-te Zahl auf die Repraesentation von d */
+	public void setDouble(int i, double d) {
+		daten[i] = Gleitpunktzahl.ausDouble(format, d);
+	}
+
+	/** setzt die Zahlen im Bereich [von, bis) auf die Werte quelle[von..bis) */
+	public void fromDouble(double[] quelle, int von, int bis) {
+		pruefeBereich(von, bis);
+		Gleitpunktstapel.ausDouble(format, quelle, daten, von, bis);
+	}
+
+	/** schreibt die Double-Werte der Zahlen im Bereich [von, bis) nach ziel */
+	public void toDouble(double[] ziel, int von, int bis) {
+		pruefeBereich(von, bis);
+		Gleitpunktstapel.zuDouble(format, daten, ziel, von, bis);
+	}
+
+	/**
+	 * setzt die Zahlen im Bereich [von, bis) auf a[i] + b[i], mit demselben
+	 * Ergebnis wie Gleitpunktzahl.add. this darf a oder b sein.
+	 */
+	public void add(Gleitpunktvektor a, Gleitpunktvektor b, int von, int bis) {
+		pruefeFormat(a.format);
+		pruefeFormat(b.format);
+		pruefeBereich(von, bis);
+		Gleitpunktstapel.add(format, a.daten, b.daten, daten, von, bis);
+	}
+
+	/**
+	 * setzt die Zahlen im Bereich [von, bis) auf a[i] - b[i], mit demselben
+	 * Ergebnis wie Gleitpunktzahl.sub. this darf a oder b sein.
+	 */
+	public void sub(Gleitpunktvektor a, Gleitpunktvektor b, int von, int bis) {
+		pruefeFormat(a.format);
+		pruefeFormat(b.format);
+		pruefeBereich(von, bis);
+		Gleitpunktstapel.sub(format, a.daten, b.daten, daten, von, bis);
+	}
+
+	/**
+	 * setzt die Zahlen im Bereich [von, bis) auf a[i] * b[i], mit demselben
+	 * Ergebnis wie Gleitpunktzahl.mul. this darf a oder b sein.
+	 */
+	public void mul(Gleitpunktvektor a, Gleitpunktvektor b, int von, int bis) {
+		pruefeFormat(a.format);
+		pruefeFormat(b.format);
+		pruefeBereich(von, bis);
+		long[] x = a.daten;
+		long[] y = b.daten;
+		for (int i = von; i < bis; i++)
+			daten[i] = Gleitpunktzahl.mul(format, x[i], y[i]);
+	}
+
+	/*
+	 * Liefert das Feld der gepackten Zahlen ohne Kopie, fuer die Kerne in
+	 * Gleitpunktblas
+	 */
+	long[] daten() {
+		return daten;
+	}
+
+	/* prueft, ob f das Format dieses Vektors ist */
+	void pruefeFormat(Gleitpunktformat f) {
+		if (!format.equals(f))
+			throw new IllegalArgumentException("Verschiedene Formate: "
+					+ format + ", " + f);
+	}
+
+	/* prueft, ob [von, bis) ein gueltiger Bereich dieses Vektors ist */
+	void pruefeBereich(int von, int bis) {
+		if (von < 0 || bis > daten.length || von > bis)
+			throw new IndexOutOfBoundsException("Bereich [" + von + ", " + bis
+					+ ") ausserhalb von [0, " + daten.length + ")");
+	}
+}
@@ -18,7 +18,13 @@ public class Gleitpunktzahl {
 	/* Vorzeichen, Mantisse und Exponent der Gleitpunktzahl */
 	public boolean vorzeichen; /* true = "-1" */
 	public int exponent;
-	public int mantisse;
+	public long mantisse;
+
+	/* Maske der 52 gespeicherten Mantissenbits eines double */
+	private static final long DOUBLE_MANTISSE = (1L << 52) - 1;
+
+	/* Format (Anzahl der Bits fuer Mantisse und Exponent) dieser Zahl */
+	private final Gleitpunktformat format;
 
 	/*
 	 * Anzahl der Bits fuer die Mantisse: einmal gesetzt, soll sie nicht mehr
@@ -35,17 +41,16 @@ public class Gleitpunktzahl {
 	private static boolean sizeExponentFixed = false;
 
 	/*
-	 * Aus der Anzahl an Bits fuer den Exponenten laesst sich der maximale
-	 * Exponent und der Offset berechnen
+	 * Standardformat aus sizeExponent und sizeMantisse. Wird beim ersten
+	 * Zugriff angelegt, danach sind beide Groessen gesperrt
 	 */
-	private static int maxExponent = (int) Math.pow(2, sizeExponent) - 1;
-	private static int expOffset = (int) Math.pow(2, sizeExponent - 1) - 1;
+	private static Gleitpunktformat standardFormat = null;
 
 	/**
 	 * Falls die Anzahl der Bits der Mantisse noch nicht gesperrt ist, so wird
 	 * sie auf abm gesetzt und gesperrt
 	 */
-	public static void setSizeMantisse(int abm) {
+	public static synchronized void setSizeMantisse(int abm) {
 		/*
 		 * Falls sizeMantisse noch nicht gesetzt und abm > 0 dann setze auf
 		 * abm und sperre den Zugriff
@@ -58,42 +63,59 @@ public class Gleitpunktzahl {
 
 	/**
 	 * Falls die Anzahl der Bits des Exponenten noch nicht gesperrt ist, so wird
-	 * sie auf abe gesetzt und gesperrt. maxExponent und expOffset werden
-	 * festgelegt
+	 * sie auf abe gesetzt und gesperrt. maxExponent und expOffset ergeben
+	 * sich daraus im Standardformat
 	 */
-	public static void setSizeExponent(int abe) {
+	public static synchronized void setSizeExponent(int abe) {
 		if (!sizeExponentFixed & (abe > 0)) {
 			sizeExponent = abe;
 			sizeExponentFixed = true;
-			maxExponent = (int) Math.pow(2, abe) - 1;
-			expOffset = (int) Math.pow(2, abe - 1) - 1;
 		}
 	}
 
 	/** Liefert die Anzahl der Bits der Mantisse */
-	public static int getSizeMantisse() {
+	public static synchronized int getSizeMantisse() {
 		return sizeMantisse;
 	}
 
 	/** Liefert die Anzahl der Bits des Exponenten */
-	public static int getSizeExponent() {
+	public static synchronized int getSizeExponent() {
 		return sizeExponent;
 	}
 
+	/**
+	 * Liefert das Standardformat aus den mit setSizeExponent und
+	 * setSizeMantisse gesetzten Werten. Ist die Anzahl der Bits noch nicht
+	 * gesetzt, wird der Standardwert gesperrt
+	 */
+	public static synchronized Gleitpunktformat getStandardFormat() {
+		if (standardFormat == null) {
+			sizeMantisseFixed = true;
+			sizeExponentFixed = true;
+			standardFormat = new Gleitpunktformat(sizeExponent, sizeMantisse);
+		}
+		return standardFormat;
+	}
+
 	/**
 	 * erzeugt eine Gleitpunktzahl ohne Anfangswert. Die Bitfelder fuer Mantisse
 	 * und Exponent werden angelegt. Ist die Anzahl der Bits noch nicht gesetzt,
 	 * wird der Standardwert gesperrt
 	 */
 	Gleitpunktzahl() {
-		sizeMantisseFixed = true;
-		sizeExponentFixed = true;
+		this(getStandardFormat());
+	}
+
+	/** erzeugt eine Gleitpunktzahl ohne Anfangswert im Format format */
+	Gleitpunktzahl(Gleitpunktformat format) {
+		this.format = format;
 	}
 
 	/** erzeugt eine Kopie der reellen Zahl r */
 	Gleitpunktzahl(Gleitpunktzahl r) {
 
-		/* Vorzeichen kopieren */
+		/* Format uebernehmen und Vorzeichen kopieren */
+		this.format = r.format;
 		this.vorzeichen = r.vorzeichen;
 		/*
 		 * Kopiert den Inhalt der jeweiligen Felder aus r
@@ -113,66 +135,104 @@ public class Gleitpunktzahl {
 		this.setDouble(d);
 	}
 
+	/**
+	 * erzeugt eine reelle Zahl mit der Repraesentation des Double-Wertes d im
+	 * Format format
+	 */
+	Gleitpunktzahl(double d, Gleitpunktformat format) {
+
+		this(format);
+		this.setDouble(d);
+	}
+
+	/** Liefert das Format dieser Zahl */
+	public Gleitpunktformat getFormat() {
+		return format;
+	}
+
 	/**
 	 * setzt dieses Objekt mit der Repraesentation des Double-Wertes d.
 	 */
 	public void setDouble(double d) {
+		this.setBits(ausDouble(this.format, d));
+	}
 
-		/* Abfangen der Sonderfaelle */
-		if (d == 0) {
-			this.setNull();
-			return;
-		}
-		if (Double.isInfinite(d)) {
-			this.setInfinite(d < 0);
-			return;
-		}
-		if (Double.isNaN(d)) {
-			this.setNaN();
-			return;
-		}
+	/**
+	 * Liefert die gepackte Darstellung (siehe Gleitpunktformat.pack) des
+	 * Double-Wertes d im Format f. Dies ist der Kern von setDouble, der ohne
+	 * Objekt auskommt.
+	 */
+	public static long ausDouble(Gleitpunktformat f, double d) {
 
-		/* Falls d<0 -> Vorzeichen setzten, Vorzeichen von d wechseln */
-		if (d < 0) {
-			this.vorzeichen = true;
-			d = -d;
-		} else
-			this.vorzeichen = false;
+		/* Abfangen der Sonderfaelle */
+		if (d == 0)
+			return 0L;
+		if (Double.isInfinite(d))
+			return f.pack(d < 0, f.getMaxExponent(), 0);
+		if (Double.isNaN(d))
+			return f.pack(false, f.getMaxExponent(), 1);
 
 		/*
-		 * Exponent exp von d zur Basis 2 finden d ist danach im Intervall [1,2)
+		 * Vorzeichen, Exponent exp zur Basis 2 und Signifikand in [1,2) direkt
+		 * aus der IEEE-Darstellung von d lesen
 		 */
-		int exp = 0;
-		while (d >= 2) {
-			d = d / 2;
-			exp++;
+		long bits = Double.doubleToRawLongBits(d);
+		boolean vorzeichen = bits < 0;
+		int exp = (int) (bits >>> 52) & 0x7ff;
+		long signifikand = bits & DOUBLE_MANTISSE;
+		if (exp == 0) {
+			/* subnormale Zahl: fuehrende 1 an die Stelle 52 schieben */
+			int shift = Long.numberOfLeadingZeros(signifikand) - 11;
+			signifikand <<= shift;
+			exp = -1022 - shift;
+		} else {
+			signifikand |= 1L << 52;
+			exp -= 1023;
 		}
-		while (d < 1) {
-			d = 2 * d;
-			exp--;
-		} /* d in [1,2) */
-		
-		this.exponent = exp + expOffset;
+
+		int exponent = exp + f.getExpOffset();
 
 		/*
-		 * Mantisse finden; fuer Runden eine Stelle mehr als noetig berechnen
+		 * Mantisse abschneiden; fuer Runden eine Stelle mehr als noetig
+		 * behalten. Breite Formate haben mehr Stellen als ein double.
 		 */
-		double rest = d;
-		this.mantisse = 0;
-		for (int i = 0; i <= sizeMantisse; i++) {
-			this.mantisse <<= 1;
-			if (rest >= 1) {
-				rest = rest - 1;
-				this.mantisse |= 1;
-			}
-			rest = 2 * rest;
-		}
-		this.exponent -= 1; /* Mantisse ist um eine Stelle groesser! */
+		int shift = 52 - f.getSizeMantisse();
+		long mantisse = (shift >= 0) ? signifikand >>> shift
+				: signifikand << -shift;
+		exponent -= 1; /* Mantisse ist um eine Stelle groesser! */
 
 		/*
-		 * normalisiere uebernimmt die Aufgaben des Rundens
+		 * normalisiereEndlich uebernimmt die Aufgaben des Rundens
 		 */
-		this.normalisiere();
+		return normalisiereEndlich(f, vorzeichen, exponent, mantisse);
+	}
+
+	/**
+	 * wandelt quelle[von..bis) in die gepackte Darstellung im Format f um und
+	 * schreibt das Ergebnis nach ziel[von..bis)
+	 */
+	public static void ausDouble(Gleitpunktformat f, double[] quelle,
+			long[] ziel, int von, int bis) {
+		for (int i = von; i < bis; i++)
+			ziel[i] = ausDouble(f, quelle[i]);
+	}
+
+	/**
+	 * Liefert die gepackte Darstellung [Vorzeichen, Exponent, Mantisse] dieser
+	 * Zahl (siehe Gleitpunktformat.pack)
+	 */
+	public long getBits() {
+		return format.pack(this.vorzeichen, this.exponent, this.mantisse);
+	}
+
+	/**
+	 * setzt Vorzeichen, Exponent und Mantisse aus der gepackten Darstellung
+	 * bits (siehe Gleitpunktformat.pack)
+	 */
+	public void setBits(long bits) {
+		this.vorzeichen = format.vorzeichen(bits);
+		this.exponent = format.exponent(bits);
+		this.mantisse = format.mantisse(bits);
 	}
 
 	/** liefert eine String-Repraesentation des Objekts */
@@ -188,9 +248,9 @@ public class Gleitpunktzahl {
 		if (this.isInfinite())
 			s.append("Inf");
 		else {
-			for (int i = 32 - Integer.numberOfLeadingZeros(this.mantisse) - 1;
+			for (int i = 64 - Long.numberOfLeadingZeros(this.mantisse) - 1;
 					i >= 0; i--) {
-				if (i == sizeMantisse - 2)
+				if (i == format.getSizeMantisse() - 2)
 					s.append(',');
 				if (((this.mantisse >> i) & 1) == 1)
 					s.append('1');
@@ -200,7 +260,7 @@ public class Gleitpunktzahl {
 			s.append(" * 2^(");
 			s.append(this.exponent);
 			s.append("-");
-			s.append(expOffset);
+			s.append(format.getExpOffset());
 			s.append(")");
 		}
 		return s.toString();
@@ -208,17 +268,41 @@ public class Gleitpunktzahl {
 
 	/** berechnet den Double-Wert des Objekts */
 	public double toDouble() {
+		return zuDouble(this.format, this.vorzeichen, this.exponent,
+				this.mantisse);
+	}
+
+	/**
+	 * schreibt die Double-Werte der gepackten Zahlen quelle[von..bis) im
+	 * Format f nach ziel[von..bis)
+	 */
+	public static void zuDouble(Gleitpunktformat f, long[] quelle,
+			double[] ziel, int von, int bis) {
+		for (int i = von; i < bis; i++)
+			ziel[i] = zuDouble(f, quelle[i]);
+	}
+
+	/**
+	 * berechnet den Double-Wert der gepackten Darstellung bits im Format f
+	 */
+	public static double zuDouble(Gleitpunktformat f, long bits) {
+		return zuDouble(f, f.vorzeichen(bits), f.exponent(bits),
+				f.mantisse(bits));
+	}
+
+	private static double zuDouble(Gleitpunktformat f, boolean vorzeichen,
+			int exponent, long mantisse) {
 		/*
 		 * Wenn der Exponent maximal ist, nimmt die Gleitpunktzahl einen der
 		 * speziellen Werte an
 		 */
-		if (this.exponent == maxExponent) {
+		if (exponent == f.getMaxExponent()) {
 			/*
 			 * Wenn die Mantisse Null ist, hat die Zahl den Wert Unendlich oder
 			 * -Unendlich
 			 */
-			if (this.mantisse == 0) {
-				if (this.vorzeichen)
+			if (mantisse == 0) {
+				if (vorzeichen)
 					return -1.0 / 0.0;
 				else
 					return 1.0 / 0.0;
@@ -227,12 +311,34 @@ public class Gleitpunktzahl {
 			else
 				return 0.0 / 0.0;
 		}
-		double m = this.mantisse;
-		if (this.vorzeichen)
+		int k = (exponent - f.getExpOffset()) - (f.getSizeMantisse() - 1);
+		if (mantisse > 0) {
+			/*
+			 * Liegt das Ergebnis im normalisierten double-Bereich und hat die
+			 * Mantisse hoechstens 53 Stellen, werden die Bits direkt
+			 * zusammengesetzt
+			 */
+			int p = 63 - Long.numberOfLeadingZeros(mantisse);
+			int e = k + p;
+			if (p <= 52 && e >= -1022 && e <= 1023) {
+				long bits = ((long) (e + 1023) << 52)
+						| ((mantisse << (52 - p)) & DOUBLE_MANTISSE);
+				if (vorzeichen)
+					bits |= Long.MIN_VALUE;
+				return Double.longBitsToDouble(bits);
+			}
+		}
+
+		/*
+		 * Unter- bzw. Ueberlauf im double-Format; mehr als 53 Stellen rundet
+		 * die Umwandlung nach double
+		 */
+		double m = mantisse;
+		if (vorzeichen)
 			m *= (-1);
 		return m
-			* Math.pow(2, (this.exponent - expOffset)
-					- (sizeMantisse - 1));
+			* Math.pow(2, (exponent - f.getExpOffset())
+					- (f.getSizeMantisse() - 1));
 	}
 
 	/**
@@ -248,12 +354,12 @@ public class Gleitpunktzahl {
 	 * entspricht
 	 */
 	public boolean isNaN() {
-		return (this.mantisse != 0 && this.exponent == maxExponent);
+		return (this.mantisse != 0 && this.exponent == format.getMaxExponent());
 	}
 
 	/** Liefert true, wenn die Gleitpunktzahl betragsmaessig unendlich gross ist */
 	public boolean isInfinite() {
-		return (this.mantisse == 0 && this.exponent == maxExponent);
+		return (this.mantisse == 0 && this.exponent == format.getMaxExponent());
 	}
 
 	/**
@@ -274,7 +380,7 @@ public class Gleitpunktzahl {
 			return expVergleich;
 
 		/* Bei gleichen Exponenten: Bitweisses Vergleichen der Mantissen */
-		return this.mantisse - r.mantisse;
+		return Long.compare(this.mantisse, r.mantisse);
 	}
 
 	/**
@@ -289,63 +395,75 @@ public class Gleitpunktzahl {
 	 * Beispiel: Bei 3 Mantissenbits wird die Zahl 10.11 * 2^-1 zu 1.10 * 2^0
 	 */
 	public void normalisiere() {
-		/*
-		 * TODO: hier ist die Operation normalisiere zu implementieren.
-		 * Beachten Sie, dass die Groesse (Anzahl der Bits) des Exponenten
-		 * und der Mantisse durch sizeExponent bzw. sizeMantisse festgelegt
-		 * ist.
-		 * Achten Sie auf Sonderfaelle!
-		 */
-		if(this.isInfinite() || this.isNaN() || this.isNull())
-			return;
-		int n = Integer.numberOfLeadingZeros(this.mantisse)-( 32-sizeMantisse ); // n:= Number of leftshifts
-	//	if(n+(32-Integer.numberOfLeadingZeros(this.exponent)) > this.sizeExponent) { /*lShifts on exp + curr exp length > sizeExp -> exp bigger than max, i.e. inf*/
-	//		this.setInfinite(this.vorzeichen);
-	//	} else if((32-Integer.numberOfLeadingZeros(this.exponent))-(-n) <= 0) { /*curr exp length - rShifts on exp <= 0 -> exp all zeroes, i.e. Null*/
-	//		this.setNull();
-	//	}
-		if(this.mantisse==0)
-		{
-			this.setNull();
-			return;
-		}
-		
+		this.setBits(normalisiere(this.format, this.vorzeichen, this.exponent,
+				this.mantisse));
+	}
+
+	/**
+	 * normalisiert und rundet die Zahl (-1)^vorzeichen * mantisse *
+	 * 2^exponent wie normalisiere() und liefert das Ergebnis in gepackter
+	 * Darstellung im Format f. Hat die Mantisse nach dem Aufrunden eine Stelle
+	 * zu viel (z.B. 1.11|1 -> 10.00), wird sie um eine Stelle verschoben und
+	 * der Exponent erhoeht, so dass das Ergebnis immer packbar ist.
+	 */
+	static long normalisiere(Gleitpunktformat f, boolean vorzeichen,
+			int exponent, long mantisse) {
+		/* Sonderfaelle Inf und NaN bleiben unveraendert */
+		if(exponent == f.getMaxExponent())
+			return f.pack(vorzeichen, exponent, mantisse);
+		return normalisiereEndlich(f, vorzeichen, exponent, mantisse);
+	}
+
+	/**
+	 * normalisiert und rundet ein endliches Zwischenergebnis wie
+	 * normalisiere. Anders als dort ist exponent hier kein Kennzeichen fuer
+	 * Inf und NaN, sondern nur der Exponent zu mantisse; so wird z.B. ein
+	 * Ueberlauf in setDouble auch dann zu Inf, wenn der Exponent vor dem
+	 * Normalisieren zufaellig maxExponent ist. Die Mantisse wird als
+	 * vorzeichenlose 64-Bit-Zahl behandelt; es wird nur geschoben und
+	 * maskiert.
+	 */
+	static long normalisiereEndlich(Gleitpunktformat f, boolean vorzeichen,
+			int exponent, long mantisse) {
+		int sizeMantisse = f.getSizeMantisse();
+		int maxExponent = f.getMaxExponent();
+
+		if(mantisse==0)
+			return 0L;
+
+		int n = Long.numberOfLeadingZeros(mantisse)-( 64-sizeMantisse ); // n:= Number of leftshifts
 		if(n<0) {
-			//round
-			this.mantisse *= Math.pow(2,  n+1);
-			if(Integer.lowestOneBit(this.mantisse) == 1) {
-				//round up, i.e. add 1
-				this.mantisse++;
+			//shift right up to the rounding bit, then round half up
+			mantisse >>>= -n-1;
+			mantisse = (mantisse >>> 1) + (mantisse & 1);
+			//carry from rounding up, e.g. 1.11|1 -> 10.00
+			if(Long.numberOfLeadingZeros(mantisse) < 64-sizeMantisse) {
+				mantisse >>>= 1;
+				exponent++;
 			}
-				//"round down", i.e. just cut off the last bit to be shifted
-				this.mantisse /= 2;
-			
 		} else {
-			this.mantisse *= Math.pow(2, n);
+			mantisse <<= n;
 		}
-		this.exponent -=n;
+		exponent -=n;
 		
-		if(this.exponent>=maxExponent)
-			setInfinite(this.vorzeichen);
-		if(this.exponent<0)
+		if(exponent>=maxExponent)
+			return f.pack(vorzeichen, maxExponent, 0);
+		if(exponent<0)
 		{
 			if(exponent == -1) //aufrunden zum kleinsten Wert
-			{
-				mantisse = (int) Math.pow(2,sizeMantisse-1);
-				exponent = 0;
-			}
+				return f.pack(vorzeichen, 0, f.getFuehrendeEins());
 			else //abrunden auf 0;
-			{
-				this.setNull();
-			}
-			
+				return 0L;
 		}
+		return f.pack(vorzeichen, exponent, mantisse);
 	}
 
 	/**
 	 * denormalisiert die betragsmaessig goessere Zahl, so dass die Exponenten
 	 * von a und b gleich sind. Die Mantissen beider Zahlen werden entsprechend
-	 * erweitert. Denormalisieren wird fuer add und sub benoetigt.
+	 * erweitert. Denormalisieren wird fuer add und sub benoetigt; diese
+	 * fuehren den Schritt in add(Gleitpunktformat, long, long) auf Kopien aus,
+	 * da denormalisiere a und b veraendert.
 	 */
 	public static void denormalisiere(Gleitpunktzahl a, Gleitpunktzahl b) {
 		/*
@@ -367,49 +485,8 @@ public class Gleitpunktzahl {
 	 * gespeichert, normiert, und dieses wird zurueckgegeben.
 	 */
 	public Gleitpunktzahl add(Gleitpunktzahl r) {
-		/*
-		 * TODO: hier ist die Operation add zu implementieren. Verwenden Sie die
-		 * Funktionen normalisiere und denormalisiere.
-		 * Achten Sie auf Sonderfaelle!
-		 */
-		if(this.isNull())
-			return r;
-		if(r.isNull())
-			return this;
-		if(this.isInfinite() || this.isNaN())
-			return this;
-		if(r.isInfinite() || r.isNaN())
-			return r;
-		
-		Gleitpunktzahl ergebnis = new Gleitpunktzahl();
-		denormalisiere(this,r);
-		if(this.vorzeichen == r.vorzeichen) {
-			ergebnis.vorzeichen = this.vorzeichen;
-			ergebnis.mantisse = this.mantisse+r.mantisse;
-		} else if(this.vorzeichen == true/*i.e. r.vor == false*/) {
-			//-this, +r
-			ergebnis.mantisse = (this.mantisse >= r.mantisse) ? (this.mantisse - r.mantisse) : (r.mantisse - this.mantisse);
-			ergebnis.vorzeichen = (this.mantisse >= r.mantisse) ? true : false;
-		} else if(this.vorzeichen == false/*i.e. r.vor == true*/) {
-			//+this, -r
-			ergebnis.mantisse = (this.mantisse >= r.mantisse) ? (this.mantisse - r.mantisse) : (r.mantisse - this.mantisse);
-			ergebnis.vorzeichen = (this.mantisse >= r.mantisse) ? false : true;
-		} //not checking for Null here! This is "automatically" done in normalisiere()...
-		ergebnis.exponent = this.exponent; //or also r.exponent, equal since they're denormalized
-		
-		//what's this do?:
-		// to double: m* Math.pow(2, (this.exponent - expOffset)- (sizeMantisse - 1));
-		/*			
-		 * 
-		 * 
-		 * this.mantisse <<= 1;
-			if (rest >= 1) {
-				rest = rest - 1;
-				this.mantisse |= 1;
-			}
-			rest = 2 * rest;
-		*/
-		ergebnis.normalisiere();
+		Gleitpunktzahl ergebnis = new Gleitpunktzahl(this.format);
+		addInto(this, r, ergebnis);
 		return ergebnis;
 	}
 
@@ -420,15 +497,174 @@ public class Gleitpunktzahl {
 	 * gespeichert, normiert, und dieses wird zurueckgegeben.
 	 */
 	public Gleitpunktzahl sub(Gleitpunktzahl r) {
-		/*
-		 * TODO: hier ist die Operation sub zu implementieren. Verwenden Sie die
-		 * Funktionen normalisiere und denormalisiere.
-		 * Achten Sie auf Sonderfaelle!
-		 */
-		r.vorzeichen = !r.vorzeichen; 
-		return add(r);
+		Gleitpunktzahl ergebnis = new Gleitpunktzahl(this.format);
+		subInto(this, r, ergebnis);
+		return ergebnis;
 	}
-	
+
+	/**
+	 * multipliziert das aktuelle Objekt mit der Gleitpunktzahl r. Das
+	 * Ergebnis wird wie bei add korrekt gerundet in einem neuen Objekt
+	 * zurueckgegeben.
+	 */
+	public Gleitpunktzahl mul(Gleitpunktzahl r) {
+		Gleitpunktzahl ergebnis = new Gleitpunktzahl(this.format);
+		mulInto(this, r, ergebnis);
+		return ergebnis;
+	}
+
+	/**
+	 * berechnet a + b und speichert das Ergebnis in ziel. a und b werden dabei
+	 * nicht veraendert, es wird kein Objekt angelegt. ziel darf a oder b sein.
+	 * a und b muessen normalisiert sein, wie nach setDouble oder normalisiere.
+	 */
+	public static void addInto(Gleitpunktzahl a, Gleitpunktzahl b,
+			Gleitpunktzahl ziel) {
+		pruefeFormat(a, b, ziel);
+		ziel.setBits(add(a.format, a.getBits(), b.getBits()));
+	}
+
+	/**
+	 * berechnet a - b und speichert das Ergebnis in ziel. a und b werden dabei
+	 * nicht veraendert, es wird kein Objekt angelegt. ziel darf a oder b sein.
+	 * a und b muessen normalisiert sein, wie nach setDouble oder normalisiere.
+	 */
+	public static void subInto(Gleitpunktzahl a, Gleitpunktzahl b,
+			Gleitpunktzahl ziel) {
+		pruefeFormat(a, b, ziel);
+		ziel.setBits(sub(a.format, a.getBits(), b.getBits()));
+	}
+
+	/**
+	 * berechnet a * b und speichert das Ergebnis in ziel. a und b werden dabei
+	 * nicht veraendert, es wird kein Objekt angelegt. ziel darf a oder b sein.
+	 */
+	public static void mulInto(Gleitpunktzahl a, Gleitpunktzahl b,
+			Gleitpunktzahl ziel) {
+		pruefeFormat(a, b, ziel);
+		ziel.setBits(mul(a.format, a.getBits(), b.getBits()));
+	}
+
+	private static void pruefeFormat(Gleitpunktzahl a, Gleitpunktzahl b,
+			Gleitpunktzahl ziel) {
+		if (!a.format.equals(b.format) || !a.format.equals(ziel.format))
+			throw new IllegalArgumentException("Verschiedene Formate: "
+					+ a.format + ", " + b.format + ", " + ziel.format);
+	}
+
+	/**
+	 * addiert die gepackten Zahlen a und b im Format f wie add, ohne Objekte
+	 * anzulegen. Liefert das normalisierte Ergebnis in gepackter Darstellung.
+	 *
+	 * Anders als denormalisiere wird nicht die groessere Mantisse nach links,
+	 * sondern die kleinere nach rechts geschoben, damit auch bei grossen
+	 * Exponentenunterschieden nichts ueberlaeuft. Beide Mantissen bekommen
+	 * dazu drei Stellen mehr (Guard-, Round- und Sticky-Bit); alle
+	 * herausgeschobenen Stellen werden in das Sticky-Bit geodert. Das reicht,
+	 * damit normalisiereEndlich genau so rundet wie beim exakten Ergebnis:
+	 * Stellen gehen nur bei einem Unterschied von mindestens 2 verloren, und
+	 * dann verliert eine Subtraktion hoechstens eine fuehrende Stelle. Mit
+	 * Uebertrag belegt die Summe hoechstens sizeMantisse + 4 <= 64 Bits.
+	 */
+	static long add(Gleitpunktformat f, long a, long b) {
+		/* Sonderfaelle: 0 ist die gepackte Darstellung 0L */
+		if(a == 0L)
+			return b;
+		if(b == 0L)
+			return a;
+		int ea = f.exponent(a);
+		int eb = f.exponent(b);
+		if(ea == f.getMaxExponent())
+			return a;
+		if(eb == f.getMaxExponent())
+			return b;
+
+		/* a soll den groesseren Exponenten haben */
+		if(eb > ea) {
+			long t = a; a = b; b = t;
+			int e = ea; ea = eb; eb = e;
+		}
+		boolean va = f.vorzeichen(a);
+		boolean vb = f.vorzeichen(b);
+		long ma = f.mantisse(a) << 3;
+		long mb = f.mantisse(b) << 3;
+
+		/* mb nach rechts an ea angleichen, verlorene Stellen ins Sticky-Bit */
+		int d = ea - eb;
+		if(d >= 64) {
+			mb = 1;
+		} else if(d > 0) {
+			long sticky = (mb & ((1L << d) - 1)) != 0 ? 1 : 0;
+			mb = (mb >>> d) | sticky;
+		}
+
+		boolean vorzeichen;
+		long mantisse;
+		if(va == vb) {
+			vorzeichen = va;
+			mantisse = ma + mb;
+		} else {
+			mantisse = (ma >= mb) ? (ma - mb) : (mb - ma);
+			vorzeichen = (ma >= mb) ? va : vb;
+		}
+		return normalisiereEndlich(f, vorzeichen, ea - 3, mantisse);
+	}
+
+	/**
+	 * subtrahiert die gepackte Zahl b von a im Format f wie sub, ohne Objekte
+	 * anzulegen. Wie bei add ist eine 0 im Ergebnis immer 0L: das Negieren
+	 * von b = 0 ergibt das Bitmuster -0, das add unveraendert zurueckgeben
+	 * wuerde (z.B. bei 0 - 0).
+	 */
+	static long sub(Gleitpunktformat f, long a, long b) {
+		long r = add(f, a, b ^ f.vorzeichenBit());
+		return (r == f.vorzeichenBit()) ? 0L : r;
+	}
+
+	/**
+	 * multipliziert die gepackten Zahlen a und b im Format f. Das exakte
+	 * Produkt der Mantissen wird auf sizeMantisse + 1 Stellen gekuerzt und von
+	 * normalisiere gerundet, so dass wie bei add korrekt gerundet wird.
+	 */
+	static long mul(Gleitpunktformat f, long a, long b) {
+		int maxExponent = f.getMaxExponent();
+		int ea = f.exponent(a);
+		int eb = f.exponent(b);
+		long ma = f.mantisse(a);
+		long mb = f.mantisse(b);
+		boolean vorzeichen = f.vorzeichen(a) ^ f.vorzeichen(b);
+
+		/* Sonderfaelle: NaN, Inf * 0, Inf, 0 */
+		if((ea == maxExponent && ma != 0) || (eb == maxExponent && mb != 0))
+			return f.pack(false, maxExponent, 1);
+		if(ea == maxExponent || eb == maxExponent) {
+			if(ma == 0 && ea != maxExponent || mb == 0 && eb != maxExponent)
+				return f.pack(false, maxExponent, 1);
+			return f.pack(vorzeichen, maxExponent, 0);
+		}
+		if(ma == 0 || mb == 0)
+			return 0L;
+
+		/* 128-Bit-Produkt hoch:tief, beide Mantissen haben hoechstens 60 Bits */
+		int sizeMantisse = f.getSizeMantisse();
+		long hoch = Math.multiplyHigh(ma, mb);
+		long tief = ma * mb;
+		int laenge = (hoch != 0) ? 128 - Long.numberOfLeadingZeros(hoch)
+				: 64 - Long.numberOfLeadingZeros(tief);
+		int s = laenge - (sizeMantisse + 1);
+		long mantisse;
+		if(s >= 64)
+			mantisse = hoch >>> (s - 64);
+		else if(s > 0)
+			mantisse = (hoch << (64 - s)) | (tief >>> s);
+		else
+			mantisse = tief << -s;
+		int exponent = ea + eb - f.getExpOffset() - (sizeMantisse - 1) + s;
+
+		/* mit der Rundungsstelle ist die Mantisse eine Stelle zu lang */
+		return normalisiereEndlich(f, vorzeichen, exponent, mantisse);
+	}
+
 	/**
 	 * Setzt die Zahl auf den Sonderfall 0
 	 */
@@ -443,7 +679,7 @@ public class Gleitpunktzahl {
 	 */
 	public void setInfinite(boolean vorzeichen) {
 		this.vorzeichen = vorzeichen;
-		this.exponent = maxExponent;
+		this.exponent = format.getMaxExponent();
 		this.mantisse = 0;
 	}
 	
@@ -452,7 +688,7 @@ public class Gleitpunktzahl {
 	 */
 	public void setNaN() {
 		this.vorzeichen = false;
-		this.exponent = maxExponent;
+		this.exponent = format.getMaxExponent();
 		this.mantisse = 1;
 	}
 }
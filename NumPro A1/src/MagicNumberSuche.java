@@ -0,0 +1,204 @@
+import java.util.stream.IntStream;
+
+/**
+ * Sucht fuer ein Gleitpunktformat die Konstante des fast inverse square root
+ * Algorithmus (FastMath.MAGIC_NUMBER), die den maximalen bzw. den mittleren
+ * relativen Fehler aus FastMath.relInvSqrtErr minimiert.
+ *
+ * Ausgewertet wird an allen positiven, endlichen Zahlen des Formats. Bei
+ * breiten Formaten wird stattdessen eine geschichtete Stichprobe verwendet:
+ * pro Exponent gleich viele, gleichmaessig verteilte Mantissen. Die
+ * Kandidaten werden parallel auf allen Kernen ausgewertet; FastMath.setMagic
+ * wird dabei nicht benutzt.
+ */
+public class MagicNumberSuche {
+
+	/**
+	 * Ergebnis einer Suche: die beste Konstante bezueglich des maximalen und
+	 * bezueglich des mittleren relativen Fehlers
+	 */
+	public static class Ergebnis {
+		public int magicMax;
+		public double maxRelErr = Double.POSITIVE_INFINITY;
+		public double meanRelErrBeiMagicMax = Double.POSITIVE_INFINITY;
+
+		public int magicMean;
+		public double meanRelErr = Double.POSITIVE_INFINITY;
+		public double maxRelErrBeiMagicMean = Double.POSITIVE_INFINITY;
+
+		public String toString() {
+			return "min. max. Fehler:     magic = " + magicMax + " (0x"
+					+ Integer.toHexString(magicMax) + "), max = " + maxRelErr
+					+ ", mittel = " + meanRelErrBeiMagicMax
+					+ "\nmin. mittl. Fehler:   magic = " + magicMean + " (0x"
+					+ Integer.toHexString(magicMean) + "), max = "
+					+ maxRelErrBeiMagicMean + ", mittel = " + meanRelErr;
+		}
+	}
+
+	/* Standardwert fuer die Anzahl der Mantissen pro Exponent */
+	public static final int STICHPROBE_PRO_EXPONENT = 256;
+
+	private final Gleitpunktformat format;
+
+	/* ausgewertete Stellen x (gepackt) */
+	private final long[] stellen;
+
+	/**
+	 * erzeugt eine Suche fuer das Format f. Hat das Format mehr als
+	 * proExponent Mantissen pro Exponent, werden pro Exponent nur proExponent
+	 * gleichmaessig verteilte Mantissen ausgewertet.
+	 */
+	public MagicNumberSuche(Gleitpunktformat f, int proExponent) {
+		if (f.getSizeExponent() + f.getSizeMantisse() > 32)
+			throw new IllegalArgumentException(
+					"IEEE-Darstellung passt nicht in ein int: " + f);
+		this.format = f;
+
+		int mantissen = (int) f.getFuehrendeEins();
+		int schritt = Math.max(1, mantissen / Math.max(1, proExponent));
+		int proExp = (mantissen + schritt - 1) / schritt;
+		int anzahl = f.getMaxExponent() * proExp;
+
+		this.stellen = new long[anzahl];
+		int k = 0;
+		for (int exponent = 0; exponent < f.getMaxExponent(); exponent++)
+			for (int i = 0; i < mantissen; i += schritt)
+				stellen[k++] = f.pack(false, exponent, f.getFuehrendeEins() | i);
+	}
+
+	/** erzeugt eine Suche mit STICHPROBE_PRO_EXPONENT Mantissen pro Exponent */
+	public MagicNumberSuche(Gleitpunktformat f) {
+		this(f, STICHPROBE_PRO_EXPONENT);
+	}
+
+	/** Liefert die Anzahl der ausgewerteten Stellen */
+	public int getAnzahlStellen() {
+		return stellen.length;
+	}
+
+	/**
+	 * Liefert die Standardgrenzen der Suche: die Konstante liegt in der Naehe
+	 * von 3/2 * expOffset * 2^(sizeMantisse-1), gesucht wird zwischen dem
+	 * Ein- und Zweifachen von expOffset * 2^(sizeMantisse-1).
+	 */
+	public int[] standardBereich() {
+		long basis = (long) format.getExpOffset() * format.getFuehrendeEins();
+		return new int[] { (int) basis,
+				(int) Math.min(Integer.MAX_VALUE, 2 * basis) };
+	}
+
+	/**
+	 * wertet die Konstante magic aus und liefert { max, mittel } des
+	 * relativen Fehlers. Nicht endliche Fehler zaehlen als unendlich.
+	 */
+	public double[] auswerten(int magic) {
+		double max = 0;
+		double summe = 0;
+		for (int i = 0; i < stellen.length; i++) {
+			double relErr = FastMath.relInvSqrtErr(format, stellen[i], magic);
+			if (!(relErr < Double.POSITIVE_INFINITY))
+				relErr = Double.POSITIVE_INFINITY;
+			if (relErr > max)
+				max = relErr;
+			summe += relErr;
+		}
+		return new double[] { max, summe / stellen.length };
+	}
+
+	/**
+	 * wertet alle Konstanten von, von + schritt, ... bis einschliesslich bis
+	 * parallel aus. Das Ergebnis ist immer eine ausgewertete Konstante, auch
+	 * wenn alle Fehler unendlich sind.
+	 */
+	public Ergebnis suche(int von, int bis, int schritt) {
+		if (bis < von || schritt < 1)
+			throw new IllegalArgumentException("Leerer Bereich [" + von + ", "
+					+ bis + "] mit Schrittweite " + schritt);
+		int anzahl = (int) (((long) bis - von) / schritt) + 1;
+		return IntStream.range(0, anzahl).parallel()
+				.mapToObj(i -> einzeln(von + i * schritt))
+				.reduce(MagicNumberSuche::besser).get();
+	}
+
+	/** wertet alle Konstanten in [von, bis] parallel aus */
+	public Ergebnis suche(int von, int bis) {
+		return suche(von, bis, 1);
+	}
+
+	/**
+	 * Grob-Fein-Suche fuer grosse Bereiche: wertet etwa kandidaten
+	 * gleichmaessig verteilte Konstanten in [von, bis] aus und verfeinert dann
+	 * um die bisher beste (bzgl. des maximalen Fehlers), bis die Schrittweite
+	 * 1 ist. Da der Fehler nicht unimodal in magic sein muss, ist das Ergebnis
+	 * nur ein lokales Optimum.
+	 */
+	public Ergebnis sucheGrobFein(int von, int bis, int kandidaten) {
+		long schritt = Math.max(1, ((long) bis - von) / kandidaten);
+		Ergebnis bestes = suche(von, bis, (int) schritt);
+		while (schritt > 1) {
+			von = (int) Math.max(von, bestes.magicMax - schritt);
+			bis = (int) Math.min(bis, bestes.magicMax + schritt);
+			schritt = Math.max(1, Math.min(schritt / 2, 2 * schritt / kandidaten));
+			bestes = besser(bestes, suche(von, bis, (int) schritt));
+		}
+		return bestes;
+	}
+
+	private Ergebnis einzeln(int magic) {
+		double[] fehler = auswerten(magic);
+		Ergebnis e = new Ergebnis();
+		e.magicMax = e.magicMean = magic;
+		e.maxRelErr = e.maxRelErrBeiMagicMean = fehler[0];
+		e.meanRelErr = e.meanRelErrBeiMagicMax = fehler[1];
+		return e;
+	}
+
+	/*
+	 * fuehrt zwei Ergebnisse zusammen; bei gleichem Fehler gewinnt die
+	 * kleinere Konstante, damit das Ergebnis nicht von der Reihenfolge der
+	 * parallelen Auswertung abhaengt
+	 */
+	private static Ergebnis besser(Ergebnis a, Ergebnis b) {
+		Ergebnis e = new Ergebnis();
+		Ergebnis m = vergleiche(a.maxRelErr, a.magicMax, b.maxRelErr,
+				b.magicMax) <= 0 ? a : b;
+		e.magicMax = m.magicMax;
+		e.maxRelErr = m.maxRelErr;
+		e.meanRelErrBeiMagicMax = m.meanRelErrBeiMagicMax;
+
+		m = vergleiche(a.meanRelErr, a.magicMean, b.meanRelErr, b.magicMean) <= 0 ? a
+				: b;
+		e.magicMean = m.magicMean;
+		e.meanRelErr = m.meanRelErr;
+		e.maxRelErrBeiMagicMean = m.maxRelErrBeiMagicMean;
+		return e;
+	}
+
+	private static int vergleiche(double fehlerA, int magicA, double fehlerB,
+			int magicB) {
+		int c = Double.compare(fehlerA, fehlerB);
+		return c != 0 ? c : Integer.compare(magicA, magicB);
+	}
+
+	/**
+	 * Sucht die beste Konstante fuer das Format mit args[0] Exponenten- und
+	 * args[1] Mantissenbits (Standard: 4/8 wie in Test_FastInverse)
+	 */
+	public static void main(String[] args) {
+		int e = args.length > 1 ? Integer.parseInt(args[0]) : 4;
+		int m = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		MagicNumberSuche suche = new MagicNumberSuche(new Gleitpunktformat(e,
+				m));
+		int[] bereich = suche.standardBereich();
+
+		long start = System.nanoTime();
+		Ergebnis ergebnis = suche.sucheGrobFein(bereich[0], bereich[1], 4096);
+		long dauer = (System.nanoTime() - start) / 1000000;
+
+		System.out.println("Format " + e + "/" + m + ", "
+				+ suche.getAnzahlStellen() + " Stellen, Bereich ["
+				+ bereich[0] + ", " + bereich[1] + "], " + dauer + " ms");
+		System.out.println(ergebnis);
+	}
+}
@@ -0,0 +1,183 @@
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+/**
+ * Writes the log-log plot of Plotter to a PNG or SVG file without opening a
+ * window, e.g. on a build server without display. Axes, captions, scaling
+ * and decimation are the ones of Plotter; the points come either from float
+ * arrays or from a Plotter.StreamingData which is filled one point at a
+ * time.
+ *
+ * The main method sweeps over formats and magic numbers and writes one plot
+ * of the absolute error of FastMath.invSqrt per combination:
+ *
+ * java PlotExport [-svg] directory e/m[:magic] ...
+ *
+ * The magic number is hexadecimal; without it, 3/2 * expOffset * 2^(m-1) is
+ * used.
+ */
+public class PlotExport {
+
+	/* Number of points per plot of the sweep in main */
+	private static final int SWEEP_POINTS = 1 << 20;
+
+	/**
+	 * Writes the plot of the points (xData[i], yData[i]) to file. The file
+	 * type is SVG if the name ends with ".svg", PNG otherwise.
+	 *
+	 * @throws IllegalArgumentException
+	 *             The lengths of the x- and y-coorinates arrays differ.
+	 */
+	public static void write(File file, float[] xData, float[] yData,
+			int width, int height) throws IOException {
+		if (xData.length != yData.length) {
+			throw new IllegalArgumentException(
+					"The arrays for the x- and y-components of the "
+							+ "coordinates have to be of the same length.");
+		}
+		Plotter.Data d = new Plotter.Data(xData, yData);
+		write(file, d.axes, d.decimate(d.logExact, width),
+				d.decimate(d.logY, width), width, height);
+	}
+
+	/**
+	 * Writes the plot of the points added to data to file, using the width
+	 * data was created with. The file type is SVG if the name ends with
+	 * ".svg", PNG otherwise.
+	 */
+	public static void write(File file, Plotter.StreamingData data, int height)
+			throws IOException {
+		write(file, data.axes(), data.exactColumns(), data.valueColumns(),
+				data.getWidth(), height);
+	}
+
+	private static void write(File file, Plotter.Axes axes, double[][] exact,
+			double[][] values, int width, int height) throws IOException {
+		if (file.getName().toLowerCase(Locale.ROOT).endsWith(".svg")) {
+			SVGCanvas canvas = new SVGCanvas(width, height);
+			Plotter.render(canvas, axes, exact, values, width, height);
+			try (Writer writer = Files.newBufferedWriter(file.toPath(),
+					StandardCharsets.UTF_8)) {
+				writer.write(canvas.toString());
+			}
+		} else {
+			if (!ImageIO.write(Plotter.render(axes, exact, values, width,
+					height, Color.WHITE), "png", file)) {
+				throw new IOException("No PNG writer available");
+			}
+		}
+	}
+
+	/**
+	 * Sweeps over the formats and magic numbers given in args, see the
+	 * description of this class.
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+
+		int i = 0;
+		String suffix = ".png";
+		if (args.length > 0 && args[0].equals("-svg")) {
+			suffix = ".svg";
+			i++;
+		}
+		if (args.length < i + 2) {
+			System.err.println("Usage: java PlotExport [-svg] directory "
+					+ "e/m[:magic] ...");
+			System.exit(1);
+		}
+		File directory = new File(args[i++]);
+		directory.mkdirs();
+
+		for (; i < args.length; i++) {
+			String[] spec = args[i].split(":");
+			String[] em = spec[0].split("/");
+			Gleitpunktformat f = new Gleitpunktformat(Integer.parseInt(em[0]),
+					Integer.parseInt(em[1]));
+			int magic = spec.length > 1 ? Integer.parseUnsignedInt(spec[1], 16)
+					: (int) (3 * (long) f.getExpOffset()
+							* f.getFuehrendeEins() / 2);
+
+			Plotter.StreamingData data = new Plotter.StreamingData(0.1f,
+					10.0f, 960);
+			float x = 0.10f;
+			for (int k = 0; k < SWEEP_POINTS; k++) {
+				long bits = Gleitpunktzahl.ausDouble(f, x);
+				data.add(x, (float) FastMath.absInvSqrtErr(f, bits, magic));
+				x *= Math.pow(100.0d, 1.0d / SWEEP_POINTS);
+			}
+
+			File file = new File(directory, "invSqrt_e" + f.getSizeExponent()
+					+ "_m" + f.getSizeMantisse() + "_"
+					+ Integer.toHexString(magic) + suffix);
+			write(file, data, 720);
+			System.out.println(file + ": " + data.getCount() + " points");
+		}
+	}
+
+	/* Canvas collecting the plot as an SVG document */
+	private static final class SVGCanvas implements Plotter.Canvas {
+		private final StringBuilder svg = new StringBuilder();
+		private String color = "#000000";
+
+		SVGCanvas(int width, int height) {
+			svg.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+			svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"")
+					.append(width).append("\" height=\"").append(height)
+					.append("\" font-family=\"sans-serif\" font-size=\"12\">\n");
+			svg.append("<rect width=\"100%\" height=\"100%\" fill=\"#ffffff\"/>\n");
+		}
+
+		public void setColor(Color c) {
+			color = String.format("#%06x", c.getRGB() & 0xffffff);
+		}
+
+		public void line(double x1, double y1, double x2, double y2) {
+			svg.append("<line x1=\"").append(number(x1)).append("\" y1=\"")
+					.append(number(y1)).append("\" x2=\"").append(number(x2))
+					.append("\" y2=\"").append(number(y2))
+					.append("\" stroke=\"").append(color).append("\"/>\n");
+		}
+
+		public void text(String text, double x, double y) {
+			svg.append("<text x=\"").append(number(x)).append("\" y=\"")
+					.append(number(y)).append("\" fill=\"").append(color)
+					.append("\">").append(escape(text)).append("</text>\n");
+		}
+
+		public void ellipse(double x, double y, double width, double height) {
+			svg.append("<ellipse cx=\"").append(number(x + width / 2))
+					.append("\" cy=\"").append(number(y + height / 2))
+					.append("\" rx=\"").append(number(width / 2))
+					.append("\" ry=\"").append(number(height / 2))
+					.append("\" fill=\"").append(color).append("\"/>\n");
+		}
+
+		public void rectangle(double x, double y, double width, double height) {
+			svg.append("<rect x=\"").append(number(x)).append("\" y=\"")
+					.append(number(y)).append("\" width=\"")
+					.append(number(width)).append("\" height=\"")
+					.append(number(height)).append("\" fill=\"").append(color)
+					.append("\"/>\n");
+		}
+
+		public String toString() {
+			return svg + "</svg>\n";
+		}
+
+		private static String number(double v) {
+			return String.format(Locale.ROOT, "%.2f", v);
+		}
+
+		private static String escape(String text) {
+			return text.replace("&", "&amp;").replace("<", "&lt;")
+					.replace(">", "&gt;");
+		}
+	}
+}
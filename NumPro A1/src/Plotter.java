@@ -4,38 +4,58 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JPanel;
+import javax.swing.SwingWorker;
 
 /**
  * @author Christoph Riesinger (riesinge@in.tum.de)
  * @since November 06, 2011
  * @version 1.0
- * 
+ *
  *          This class is a simple implementation of a plotter. It accepts two
  *          arrays of float values which represent the x- and y-coordinates of
  *          points which should be plotted in a carthesian coordinate system. x-
  *          and y-axis are scaled logarithmically. No interpolation between the
  *          dots is done!
+ *
+ *          To handle millions of points, the logarithms are computed once
+ *          when the data is set, and the points are decimated to the minimum
+ *          and maximum per pixel column before drawing. The plot is rendered
+ *          into a cached image on a background thread; the cache is only
+ *          invalidated when the data or the size of the panel changes.
  */
 public class Plotter extends JPanel {
 	/* Just to avoid compiler warning. */
 	private static final long serialVersionUID = -8725968470735352529L;
 
 	/* Top, bottom, left and right margin of the coordinate system in the plot. */
-	private final int PADDING = 20;
+	private static final int PADDING = 20;
 
-	/* Class members. Are set in class constructor. */
-	private float[] xData = null;
-	private float[] yData = null;
-	private float minX = Float.MAX_VALUE;
-	private float minY = Float.MAX_VALUE;
-	private float maxX = -Float.MAX_VALUE;
-	private float maxY = -Float.MAX_VALUE;
+	/* Data to plot. Is replaced as a whole by setData. */
+	private volatile Data data;
+
+	/* Cached plot and the data and size it was rendered for. */
+	private BufferedImage cache = null;
+	private Data cacheData = null;
+
+	/* Background rendering in progress, or null. */
+	private SwingWorker<BufferedImage, Void> worker = null;
+
+	/*
+	 * Data and size of the last failed rendering. It is not retried until
+	 * the data or the size of the panel changes.
+	 */
+	private Data failedData = null;
+	private int failedWidth, failedHeight;
 
 	/**
 	 * Constructor of this class. Assigns the passed x- and y-values of the
 	 * points to plot to the internal private member variables.
-	 * 
+	 *
 	 * @param xData
 	 *            x-values of the points which should be plotted by this class.
 	 * @param yData
@@ -54,179 +74,504 @@ public class Plotter extends JPanel {
 					"The arrays for the x- and y-components of the "
 							+ "coordinates have to be of the same length."));
 		}
+		this.data = new Data(xData, yData);
+	}
 
-		this.xData = xData;
-		this.yData = yData;
-
-		/*
-		 * Determine the smallest and largest value which should be plotted by
-		 * this class. These values are the boundaries of the axes of the
-		 * coordinate system which will be plotted.
-		 */
-		for (int i = 0; i < xData.length; i++) {
-			if (xData[i] < minX) {
-				minX = xData[i];
-			}
-			if (xData[i] > maxX) {
-				maxX = xData[i];
-			}
-			if (yData[i] < minY) {
-				minY = yData[i];
-			}
-			if (yData[i] > maxY) {
-				maxY = yData[i];
-			}
-		}
-		if (1.0d / Math.sqrt(maxX) < minY) {
-			minY = (float) (1.0d / Math.sqrt(maxX));
-		}
-		if (1.0d / Math.sqrt(minX) < minY) {
-			minY = (float) (1.0d / Math.sqrt(minX));
-		}
-		if (1.0d / Math.sqrt(maxX) > maxY) {
-			maxY = (float) (1.0d / Math.sqrt(maxX));
-		}
-		if (1.0d / Math.sqrt(minX) > maxY) {
-			maxY = (float) (1.0d / Math.sqrt(minX));
+	/**
+	 * Replaces the plotted points and invalidates the cached plot. The arrays
+	 * are not modified and may be reused by the caller afterwards.
+	 *
+	 * @throws IllegalArgumentException
+	 *             The lengths of the x- and y-coorinates arrays differ.
+	 */
+	public void setData(float[] xData, float[] yData) {
+		if (xData.length != yData.length) {
+			throw new IllegalArgumentException(
+					"The arrays for the x- and y-components of the "
+							+ "coordinates have to be of the same length.");
 		}
+		this.data = new Data(xData, yData);
+		repaint();
 	}
 
 	/*
 	 * (non-Javadoc)
-	 * 
+	 *
 	 * @see javax.swing.JComponent#paintComponent(java.awt.Graphics)
 	 */
 	protected void paintComponent(Graphics g) {
 		super.paintComponent(g);
 
-		Graphics2D graphics = (Graphics2D) g;
+		int width = getWidth();
+		int height = getHeight();
+		Data d = this.data;
+
+		if (cache != null && cacheData == d && cache.getWidth() == width
+				&& cache.getHeight() == height) {
+			g.drawImage(cache, 0, 0, null);
+			return;
+		}
+
+		/* show the outdated plot (stretched) until the new one is ready */
+		if (cache != null)
+			g.drawImage(cache, 0, 0, width, height, null);
+		boolean failed = failedData == d && failedWidth == width
+				&& failedHeight == height;
+		if (worker == null && !failed && width > 0 && height > 0)
+			startRendering(d, width, height, getBackground());
+	}
+
+	/* renders the plot for d in the given size on a background thread */
+	private void startRendering(final Data d, final int width,
+			final int height, final Color background) {
+		worker = new SwingWorker<BufferedImage, Void>() {
+			protected BufferedImage doInBackground() {
+				return render(d, width, height, background);
+			}
+
+			protected void done() {
+				worker = null;
+				try {
+					cache = get();
+					cacheData = d;
+				} catch (InterruptedException | ExecutionException e) {
+					/* reported once, paintComponent does not retry */
+					failedData = d;
+					failedWidth = width;
+					failedHeight = height;
+					Throwable cause = e instanceof ExecutionException ? e
+							.getCause() : e;
+					System.err.println("Plotter: rendering " + width + "x"
+							+ height + " failed: " + cause);
+				}
+				/*
+				 * paints the result or starts rendering again if outdated,
+				 * but not for the data and size that just failed
+				 */
+				repaint();
+			}
+		};
+		worker.execute();
+	}
+
+	/**
+	 * Renders the plot of d into a new image of the given size and
+	 * background. Needs no display and may be called from any thread.
+	 */
+	static BufferedImage render(Data d, int width, int height,
+			Color background) {
+		return render(d.axes, d.decimate(d.logExact, width),
+				d.decimate(d.logY, width), width, height, background);
+	}
+
+	/**
+	 * Renders a plot with the given axes and decimated columns (see
+	 * Data.decimate) into a new image of the given size and background.
+	 */
+	static BufferedImage render(Axes axes, double[][] exact,
+			double[][] values, int width, int height, Color background) {
+		BufferedImage image = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
 		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
 				RenderingHints.VALUE_ANTIALIAS_ON);
+		graphics.setPaint(background);
+		graphics.fillRect(0, 0, width, height);
+		graphics.setPaint(Color.BLACK);
+		render(new Java2DCanvas(graphics), axes, exact, values, width, height);
+		graphics.dispose();
+		return image;
+	}
 
-		int height = getHeight();
-		int width = getWidth();
-		float x, y;
+	/**
+	 * Draws axes, captions and the decimated columns exact and values (see
+	 * Data.decimate) onto canvas into an area of the given size.
+	 */
+	static void render(Canvas canvas, Axes axes, double[][] exact,
+			double[][] values, int width, int height) {
+		float minX = axes.minX, maxX = axes.maxX;
+		float minY = axes.minY, maxY = axes.maxY;
 
 		/* draw x-axis */
-		graphics.draw(new Line2D.Double(PADDING, PADDING, PADDING, height
-				- PADDING));
-		graphics.draw(new Line2D.Double(
-				PADDING + 0.25f * (width - 2 * PADDING), height - PADDING - 5,
-				PADDING + 0.25f * (width - 2 * PADDING), height - PADDING + 5));
-		graphics.draw(new Line2D.Double(0.5f * width, height - PADDING - 5,
-				0.5f * width, height - PADDING + 5));
-		graphics.draw(new Line2D.Double(
-				PADDING + 0.75f * (width - 2 * PADDING), height - PADDING - 5,
-				PADDING + 0.75f * (width - 2 * PADDING), height - PADDING + 5));
-		graphics.draw(new Line2D.Double(width - PADDING, height - PADDING - 5,
-				width - PADDING, height - PADDING + 5));
+		canvas.line(PADDING, PADDING, PADDING, height - PADDING);
+		canvas.line(PADDING + 0.25f * (width - 2 * PADDING), height - PADDING
+				- 5, PADDING + 0.25f * (width - 2 * PADDING), height - PADDING
+				+ 5);
+		canvas.line(0.5f * width, height - PADDING - 5, 0.5f * width, height
+				- PADDING + 5);
+		canvas.line(PADDING + 0.75f * (width - 2 * PADDING), height - PADDING
+				- 5, PADDING + 0.75f * (width - 2 * PADDING), height - PADDING
+				+ 5);
+		canvas.line(width - PADDING, height - PADDING - 5, width - PADDING,
+				height - PADDING + 5);
 
 		/* draw x-axis caption */
-		graphics.drawString((new Float(minX)).toString(), PADDING + 2, height
+		canvas.text((new Float(minX)).toString(), PADDING + 2, height
 				- PADDING + 12);
-		graphics.drawString(
+		canvas.text(
 				(new Float(Math.pow(10.0d, 0.25f * Math.log10(maxX) + 0.75f
 						* Math.log10(minX)))).toString(), PADDING + 0.25f
 						* (width - 2 * PADDING) + 2, height - PADDING + 12);
-		graphics.drawString(
+		canvas.text(
 				(new Float(Math.pow(10.0d,
 						0.5f * (Math.log10(maxX) + Math.log10(minX)))))
 						.toString(), 0.5f * width + 2, height - PADDING + 12);
-		graphics.drawString(
+		canvas.text(
 				(new Float(Math.pow(10.0d, 0.75f * Math.log10(maxX) + 0.25f
 						* Math.log10(minX)))).toString(), PADDING + 0.75f
 						* (width - 2 * PADDING) + 2, height - PADDING + 12);
-		graphics.drawString((new Float(maxX)).toString(), width - PADDING + 2,
-				height - PADDING + 12);
+		canvas.text((new Float(maxX)).toString(), width - PADDING + 2, height
+				- PADDING + 12);
 
 		/* draw y-axis */
-		graphics.draw(new Line2D.Double(PADDING, height - PADDING, width
-				- PADDING, height - PADDING));
-		graphics.draw(new Line2D.Double(PADDING - 5, height
+		canvas.line(PADDING, height - PADDING, width - PADDING, height
+				- PADDING);
+		canvas.line(PADDING - 5, height
 				- (PADDING + 0.25f * (height - 2 * PADDING)), PADDING + 5,
-				height - (PADDING + 0.25f * (height - 2 * PADDING))));
-		graphics.draw(new Line2D.Double(PADDING - 5, 0.5f * height,
-				PADDING + 5, 0.5f * height));
-		graphics.draw(new Line2D.Double(PADDING - 5, height
+				height - (PADDING + 0.25f * (height - 2 * PADDING)));
+		canvas.line(PADDING - 5, 0.5f * height, PADDING + 5, 0.5f * height);
+		canvas.line(PADDING - 5, height
 				- (PADDING + 0.75f * (height - 2 * PADDING)), PADDING + 5,
-				height - (PADDING + 0.75f * (height - 2 * PADDING))));
-		graphics.draw(new Line2D.Double(PADDING - 5, height
-				- (PADDING + (height - 2 * PADDING)), PADDING + 5, height
-				- (PADDING + (height - 2 * PADDING))));
+				height - (PADDING + 0.75f * (height - 2 * PADDING)));
+		canvas.line(PADDING - 5, height - (PADDING + (height - 2 * PADDING)),
+				PADDING + 5, height - (PADDING + (height - 2 * PADDING)));
 
 		/* draw y-axis caption */
-		graphics.drawString((new Float(minY)).toString(), PADDING + 2,
+		canvas.text((new Float(minY)).toString(), PADDING + 2,
 				(height - 2 * PADDING) + PADDING - 2);
-		graphics.drawString(
+		canvas.text(
 				(new Float(Math.pow(10.0d, 0.25f * Math.log10(maxY) + 0.75f
 						* Math.log10(minY)))).toString(), PADDING + 2, height
 						- (PADDING + 0.25f * (height - 2 * PADDING)) - 2);
-		graphics.drawString(
+		canvas.text(
 				(new Float(Math.pow(10.0d,
 						0.5f * (Math.log10(maxY) + Math.log10(minY)))))
 						.toString(), PADDING + 2, 0.5f * height - 2);
-		graphics.drawString(
+		canvas.text(
 				(new Float(Math.pow(10.0d, 0.75f * Math.log10(maxY) + 0.25f
 						* Math.log10(minY)))).toString(), PADDING + 2, height
 						- (PADDING + 0.75f * (height - 2 * PADDING)) - 2);
-		graphics.drawString((new Float(maxY)).toString(), PADDING + 2,
-				PADDING - 2);
+		canvas.text((new Float(maxY)).toString(), PADDING + 2, PADDING - 2);
 
 		/* draw "exact" solution */
-		graphics.setPaint(Color.GREEN);
+		canvas.setColor(Color.GREEN);
+		drawColumns(canvas, axes, exact, height);
+
+		/* draw assigned values */
+		canvas.setColor(Color.red);
+		drawColumns(canvas, axes, values, height);
+	}
 
-		for (int i = 0; i < xData.length; i++) {
-			x = scaleX(xData[i], width);
-			y = scaleY((float) (1.0d / Math.sqrt(xData[i])), height);
-			graphics.fill(new Ellipse2D.Float(x - 1.0f, y - 1.0f, 2.0f, 2.0f));
+	/*
+	 * Draws the result of Data.decimate: a dot for columns whose values are
+	 * less than a pixel apart, a bar from minimum to maximum otherwise.
+	 */
+	private static void drawColumns(Canvas canvas, Axes axes,
+			double[][] columns, int height) {
+		double[] min = columns[0];
+		double[] max = columns[1];
+		for (int c = 0; c < min.length; c++) {
+			if (min[c] > max[c])
+				continue;
+			/* larger values are drawn further up */
+			float top = axes.scaleY(max[c], height);
+			float bottom = axes.scaleY(min[c], height);
+			if (bottom - top < 1.0f)
+				canvas.ellipse(c - 0.5f, top - 1.0f, 2.0f, 2.0f);
+			else
+				canvas.rectangle(c - 0.5f, top - 1.0f, 2.0f, bottom - top + 2.0f);
 		}
+	}
 
-		/* draw assigned values */
-		graphics.setPaint(Color.red);
+	/**
+	 * Drawing primitives used by render. Implemented for Java2D here and for
+	 * SVG in PlotExport.
+	 */
+	interface Canvas {
+		void setColor(Color color);
+
+		void line(double x1, double y1, double x2, double y2);
+
+		void text(String text, double x, double y);
+
+		/* fills the ellipse within the given bounds */
+		void ellipse(double x, double y, double width, double height);
+
+		/* fills the rectangle */
+		void rectangle(double x, double y, double width, double height);
+	}
+
+	/* Canvas drawing with a Graphics2D */
+	private static final class Java2DCanvas implements Canvas {
+		private final Graphics2D graphics;
+
+		Java2DCanvas(Graphics2D graphics) {
+			this.graphics = graphics;
+		}
+
+		public void setColor(Color color) {
+			graphics.setPaint(color);
+		}
 
-		for (int i = 0; i < xData.length; i++) {
-			x = scaleX(xData[i], width);
-			y = scaleY(yData[i], height);
-			graphics.fill(new Ellipse2D.Float(x - 1.0f, y - 1.0f, 2.0f, 2.0f));
+		public void line(double x1, double y1, double x2, double y2) {
+			graphics.draw(new Line2D.Double(x1, y1, x2, y2));
+		}
+
+		public void text(String text, double x, double y) {
+			graphics.drawString(text, (float) x, (float) y);
+		}
+
+		public void ellipse(double x, double y, double width, double height) {
+			graphics.fill(new Ellipse2D.Double(x, y, width, height));
+		}
+
+		public void rectangle(double x, double y, double width, double height) {
+			graphics.fill(new Rectangle2D.Double(x, y, width, height));
 		}
 	}
 
 	/**
-	 * The x-values are logarithmically scaled before they are drawn. This is
-	 * done by this method. The padding of the coordinate system is respected.
-	 * 
-	 * @param x
-	 *            Value which should be scaled logarithmically.
-	 * @param width
-	 *            Width of the plottable area.
-	 * @return Logarithmically scaled value of x.
+	 * The boundaries of the axes and the logarithmic scaling of the plot.
+	 * The y-axis always covers the exact 1 / sqrt(x) over the x-axis, too.
 	 */
-	private float scaleX(float x, float width) {
-		float xScale = (float) (width - 2 * PADDING)
-				/ (float) (Math.log10(maxX) - Math.log10(minX));
-		float xOffset = (float) -Math.log10(minX);
-		float result = PADDING + xScale * (xOffset + (float) Math.log10(x));
+	static final class Axes {
+		final float minX, maxX, minY, maxY;
+
+		Axes(float minX, float maxX, float minY, float maxY) {
+			if (1.0d / Math.sqrt(maxX) < minY) {
+				minY = (float) (1.0d / Math.sqrt(maxX));
+			}
+			if (1.0d / Math.sqrt(minX) < minY) {
+				minY = (float) (1.0d / Math.sqrt(minX));
+			}
+			if (1.0d / Math.sqrt(maxX) > maxY) {
+				maxY = (float) (1.0d / Math.sqrt(maxX));
+			}
+			if (1.0d / Math.sqrt(minX) > maxY) {
+				maxY = (float) (1.0d / Math.sqrt(minX));
+			}
+			this.minX = minX;
+			this.maxX = maxX;
+			this.minY = minY;
+			this.maxY = maxY;
+		}
+
+		/**
+		 * The x-values are logarithmically scaled before they are drawn. This
+		 * is done by this method. The padding of the coordinate system is
+		 * respected.
+		 *
+		 * @param logX
+		 *            log10 of the value which should be scaled.
+		 * @param width
+		 *            Width of the plottable area.
+		 * @return Logarithmically scaled value of x.
+		 */
+		float scaleX(double logX, float width) {
+			float xScale = (float) (width - 2 * PADDING)
+					/ (float) (Math.log10(maxX) - Math.log10(minX));
+			float xOffset = (float) -Math.log10(minX);
+			float result = PADDING + xScale * (xOffset + (float) logX);
+
+			return result;
+		}
 
-		return result;
+		/**
+		 * The y-values are logarithmically scaled before they are drawn. This
+		 * is done by this method. The padding of the coordinate system is
+		 * respected.
+		 *
+		 * @param logY
+		 *            log10 of the value which should be scaled.
+		 * @param height
+		 *            Height of the plottable area.
+		 * @return Logarithmically scaled value of y.
+		 */
+		float scaleY(double logY, float height) {
+			float yScale = (float) (height - 2 * PADDING)
+					/ (float) (Math.log10(maxY) - Math.log10(minY));
+			float yOffset = (float) -Math.log10(minY);
+			float result = height
+					- (PADDING + yScale * (yOffset + (float) logY));
+
+			return result;
+		}
+
+		/* Returns the pixel column of log10(x), or -1 if it is outside */
+		int column(double logX, int width) {
+			float x = scaleX(logX, width);
+			return (x >= 0 && x < width) ? (int) x : -1;
+		}
 	}
 
 	/**
-	 * The y-values are logarithmically scaled before they are drawn. This is
-	 * done by this method. The padding of the coordinate system is respected.
-	 * 
-	 * @param y
-	 *            Value which should be scaled logarithmically.
-	 * @param height
-	 *            Height of the plottable area.
-	 * @return Logarithmically scaled value of y.
+	 * The points to plot with their logarithms and the boundaries of the
+	 * axes. Immutable, so it can be rendered on any thread.
 	 */
-	private float scaleY(float y, float height) {
-		float yScale = (float) (height - 2 * PADDING)
-				/ (float) (Math.log10(maxY) - Math.log10(minY));
-		float yOffset = (float) -Math.log10(minY);
-		float result = height
-				- (PADDING + yScale * (yOffset + (float) Math.log10(y)));
-
-		return result;
+	static final class Data {
+		final Axes axes;
+
+		/* log10 of the x-values, the y-values and the exact 1 / sqrt(x) */
+		final double[] logX, logY, logExact;
+
+		Data(float[] xData, float[] yData) {
+			float minX = Float.MAX_VALUE;
+			float minY = Float.MAX_VALUE;
+			float maxX = -Float.MAX_VALUE;
+			float maxY = -Float.MAX_VALUE;
+
+			/*
+			 * Determine the smallest and largest value which should be
+			 * plotted by this class. These values are the boundaries of the
+			 * axes of the coordinate system which will be plotted.
+			 */
+			int n = xData.length;
+			logX = new double[n];
+			logY = new double[n];
+			logExact = new double[n];
+			for (int i = 0; i < n; i++) {
+				if (xData[i] < minX) {
+					minX = xData[i];
+				}
+				if (xData[i] > maxX) {
+					maxX = xData[i];
+				}
+				if (yData[i] < minY) {
+					minY = yData[i];
+				}
+				if (yData[i] > maxY) {
+					maxY = yData[i];
+				}
+				logX[i] = Math.log10(xData[i]);
+				logY[i] = Math.log10(yData[i]);
+				logExact[i] = logExact(xData[i]);
+			}
+			this.axes = new Axes(minX, maxX, minY, maxY);
+		}
+
+		/**
+		 * Decimates the points (logX[i], logV[i]) to one column per pixel of
+		 * the plot. Returns { min, max } of log10 of the y-values per column;
+		 * columns without points have min > max. Points with non-finite
+		 * coordinates are skipped.
+		 */
+		double[][] decimate(double[] logV, int width) {
+			Columns columns = new Columns(Math.max(width, 0));
+			for (int i = 0; i < logX.length; i++)
+				columns.add(axes.column(logX[i], width), logV[i]);
+			return columns.toArray();
+		}
+	}
+
+	/**
+	 * Decimates a stream of points which is too large to be stored, e.g. a
+	 * sweep over all numbers of a format. The range of the x-axis and the
+	 * width of the plot are fixed in advance, points outside of the range are
+	 * ignored; the y-axis is fitted to the points as in the constructor of
+	 * Plotter. See PlotExport for writing the result.
+	 */
+	public static final class StreamingData {
+		private final float minX, maxX;
+		private final int width;
+
+		/* axes with the final x-range, only used to find the columns */
+		private final Axes columnAxes;
+		private final Columns exact, values;
+
+		private float minY = Float.MAX_VALUE;
+		private float maxY = -Float.MAX_VALUE;
+		private long count = 0;
+
+		/**
+		 * @param minX
+		 *            left end of the logarithmic x-axis, has to be positive.
+		 * @param maxX
+		 *            right end of the x-axis, has to be larger than minX.
+		 * @param width
+		 *            Width of the plot the points are decimated for.
+		 */
+		public StreamingData(float minX, float maxX, int width) {
+			if (!(minX > 0 && maxX > minX) || width <= 0) {
+				throw new IllegalArgumentException("Invalid range [" + minX
+						+ ", " + maxX + "] or width " + width);
+			}
+			this.minX = minX;
+			this.maxX = maxX;
+			this.width = width;
+			this.columnAxes = new Axes(minX, maxX, 1.0f, 1.0f);
+			this.exact = new Columns(width);
+			this.values = new Columns(width);
+		}
+
+		/** Adds the point (x, y). Points with x outside the range are ignored. */
+		public void add(float x, float y) {
+			double logX = Math.log10(x);
+			int c = columnAxes.column(logX, width);
+			if (c < 0 || x < minX || x > maxX)
+				return;
+			if (y < minY) {
+				minY = y;
+			}
+			if (y > maxY) {
+				maxY = y;
+			}
+			exact.add(c, logExact(x));
+			values.add(c, Math.log10(y));
+			count++;
+		}
+
+		/** Returns the number of points added within the range. */
+		public long getCount() {
+			return count;
+		}
+
+		/** Returns the width of the plot the points are decimated for. */
+		public int getWidth() {
+			return width;
+		}
+
+		/* the axes fitted to the points added so far */
+		Axes axes() {
+			return new Axes(minX, maxX, minY, maxY);
+		}
+
+		double[][] exactColumns() {
+			return exact.toArray();
+		}
+
+		double[][] valueColumns() {
+			return values.toArray();
+		}
+	}
+
+	/* log10 of the "exact" solution 1 / sqrt(x) as it is plotted */
+	private static double logExact(float x) {
+		return Math.log10((float) (1.0d / Math.sqrt(x)));
+	}
+
+	/* Minimum and maximum of log10(y) per pixel column */
+	private static final class Columns {
+		private final double[] min, max;
+
+		Columns(int width) {
+			min = new double[width];
+			max = new double[width];
+			Arrays.fill(min, Double.POSITIVE_INFINITY);
+			Arrays.fill(max, Double.NEGATIVE_INFINITY);
+		}
+
+		/* adds log10(y) to column c; c < 0 and non-finite values are skipped */
+		void add(int c, double logY) {
+			if (c < 0 || Double.isNaN(logY) || Double.isInfinite(logY))
+				return;
+			if (logY < min[c])
+				min[c] = logY;
+			if (logY > max[c])
+				max[c] = logY;
+		}
+
+		double[][] toArray() {
+			return new double[][] { min.clone(), max.clone() };
+		}
 	}
 }
@@ -1,3 +1,6 @@
+import java.io.File;
+import java.io.IOException;
+
 import javax.swing.JFrame;
 
 /**
@@ -26,12 +29,13 @@ public class Test_FastInverse {
 	 * algorithm and to play while finding an optimal magic number.
 	 * 
 	 * @param args
-	 *            args is ignored.
+	 *            If a file name is given, the plot is written to this PNG or
+	 *            SVG file (see PlotExport) instead of being shown in a window.
 	 */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 
-		Gleitpunktzahl.setSizeExponent(anzBitsExponent);
-		Gleitpunktzahl.setSizeMantisse(anzBitsMantisse);
+		Gleitpunktformat format = new Gleitpunktformat(anzBitsExponent,
+				anzBitsMantisse);
 		//FastMath.setMagic(MAGIC_NUMBER);
 
 		int numOfSamplingPts = 1001;
@@ -42,12 +46,18 @@ public class Test_FastInverse {
 		/* calculate data to plot */
 		for (int i = 0; i < numOfSamplingPts; i++) {
 			xData[i] = x;
-			Gleitpunktzahl y = new Gleitpunktzahl(x);
+			Gleitpunktzahl y = new Gleitpunktzahl(x, format);
 			yData[i] = (float) FastMath.absInvSqrtErr(y); //abs -> rel
 
 			x *= Math.pow(100.0d, 1.0d / numOfSamplingPts);
 		}
 
+		if (args.length > 0) {
+			System.setProperty("java.awt.headless", "true");
+			PlotExport.write(new File(args[0]), xData, yData, 960, 720);
+			return;
+		}
+
 		/* initialize plotter */
 		JFrame frame = new JFrame();
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
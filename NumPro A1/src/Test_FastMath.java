@@ -0,0 +1,309 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test von FastMath und den Werkzeugen zur Fehlerauswertung ohne Plotter:
+ *
+ * MagicNumberSuche muss fuer das Format 4/8 aus Test_FastInverse die
+ * bekannte beste Konstante 1335 (0x537) finden, sowohl bei der vollstaendigen
+ * Suche als auch bei der Grob-Fein-Suche, und Formate, deren IEEE-Darstellung
+ * nicht in ein int passt, ablehnen.
+ *
+ * Die Newton-Schritte von FastMath.invSqrt(Gleitpunktformat, long, int, int)
+ * muessen den relativen Fehler unter die Grenzen in NEWTON_GRENZEN druecken,
+ * ausgewertet fuer alle Exponenten, bei denen x/2 * y * y nicht unterlaeuft.
+ * Im Format 8/24 (wie float) mit der Konstanten 0x5f3759df sinkt der Fehler
+ * von 3.4E-2 auf 1.8E-3 und 4.3E-6, im Format 4/8 begrenzt die Rundung auf 8
+ * Bits den Fehler schon nach einem Schritt auf etwa 2^-7. Die Stapelvarianten
+ * fuer Gleitpunktvektor und double[] muessen bitweise dieselben Ergebnisse
+ * liefern wie die Einzelauswertung.
+ *
+ * Ebenso FastMath.invSqrt(float, int) und invSqrt(double, int) mit
+ * MAGIC_FLOAT bzw. MAGIC_DOUBLE fuer normalisierte positive Zahlen und die
+ * Stapelvarianten fuer float[] und double[].
+ *
+ * Fehlerstatistik.parallel muss dieselbe Statistik liefern wie die
+ * sequentielle Auswertung: Anzahlen, Maxima, deren Stelle und das Histogramm
+ * exakt, die Mittelwerte bis auf wenige ULP (siehe zusammenfuehren).
+ */
+public class Test_FastMath {
+
+	/* Format { sizeExponent, sizeMantisse, magic } */
+	private static final int[][] NEWTON_FORMATE = { { 8, 24, 0x5f3759df },
+			{ 4, 8, 1335 } };
+
+	/* Grenzen fuer den relativen Fehler nach 0, 1 und 2 Newton-Schritten */
+	private static final double[][] NEWTON_GRENZEN = {
+			{ 3.5E-2, 1.8E-3, 5E-6 }, { 3.6E-2, 8E-3, 8E-3 } };
+
+	/*
+	 * Grenzen fuer den relativen Fehler von invSqrt(float, n) und
+	 * invSqrt(double, n) mit n = 0, ..., 3 Newton-Schritten
+	 */
+	private static final double[] FLOAT_GRENZEN = { 3.5E-2, 1.8E-3, 5E-6,
+			2E-7 };
+	private static final double[] DOUBLE_GRENZEN = { 3.5E-2, 1.8E-3, 5E-6,
+			4E-11 };
+
+	public static void main(String[] argv) {
+		test_magicSuche();
+		test_newton();
+		test_nativ();
+		test_fehlerstatistik();
+	}
+
+	public static void test_magicSuche() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von MagicNumberSuche");
+
+		Gleitpunktformat f = new Gleitpunktformat(4, 8);
+		MagicNumberSuche suche = new MagicNumberSuche(f);
+		int[] bereich = suche.standardBereich();
+		long fehler = 0;
+
+		MagicNumberSuche.Ergebnis voll = suche.suche(bereich[0], bereich[1]);
+		if (voll.magicMax != 1335 && fehler++ < 3)
+			printErg("suche(" + bereich[0] + ", " + bereich[1] + ").magicMax",
+					"" + voll.magicMax, "1335");
+		MagicNumberSuche.Ergebnis grobFein = suche.sucheGrobFein(bereich[0],
+				bereich[1], 64);
+		if (grobFein.magicMax != 1335 && fehler++ < 3)
+			printErg("sucheGrobFein(" + bereich[0] + ", " + bereich[1]
+					+ ", 64).magicMax", "" + grobFein.magicMax, "1335");
+
+		/*
+		 * sind alle Fehler unendlich, muss trotzdem eine Konstante aus dem
+		 * Bereich herauskommen (bei Gleichstand die kleinste)
+		 */
+		MagicNumberSuche.Ergebnis unendlich = suche.suche(2990, 3006);
+		if ((unendlich.magicMax != 2990 || unendlich.magicMean != 2990)
+				&& fehler++ < 3)
+			printErg("suche(2990, 3006).magicMax/magicMean",
+					unendlich.magicMax + "/" + unendlich.magicMean, "2990/2990");
+
+		/* auswerten muss den Fehler aus FastMath.relInvSqrtErr liefern */
+		double max = 0;
+		for (int exponent = 0; exponent < f.getMaxExponent(); exponent++)
+			for (long m = 0; m < f.getFuehrendeEins(); m++)
+				max = Math.max(max, FastMath.relInvSqrtErr(f,
+						f.pack(false, exponent, f.getFuehrendeEins() | m), 1335));
+		if (suche.auswerten(1335)[0] != max && fehler++ < 3)
+			printErg("auswerten(1335)[0]", "" + suche.auswerten(1335)[0], ""
+					+ max);
+
+		try {
+			new MagicNumberSuche(new Gleitpunktformat(5, 28));
+			if (fehler++ < 3)
+				printErg("new MagicNumberSuche(5/28)", "keine Exception",
+						"IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			/* erwartet: 5 + 28 Bits passen nicht in ein int */
+		}
+		printZusammenfassung(f, 5, fehler);
+	}
+
+	public static void test_newton() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von FastMath.invSqrt mit Newton-Schritten");
+
+		Random random = new Random(2015);
+		for (int k = 0; k < NEWTON_FORMATE.length; k++) {
+			Gleitpunktformat f = new Gleitpunktformat(NEWTON_FORMATE[k][0],
+					NEWTON_FORMATE[k][1]);
+			int magic = NEWTON_FORMATE[k][2];
+			long fehler = 0;
+			long anzahl = 0;
+
+			/* Fehlergrenzen, ohne Unter- und Ueberlauf in x/2 * y * y */
+			int rand = f.getExpOffset() / 4;
+			long schritt = Math.max(1, f.getFuehrendeEins() / 1024);
+			for (int schritte = 0; schritte <= 2; schritte++) {
+				double max = 0;
+				for (int e = rand; e < f.getMaxExponent() - rand; e++) {
+					for (long m = 0; m < f.getFuehrendeEins(); m += schritt) {
+						long x = f.pack(false, e, f.getFuehrendeEins() | m);
+						double y = Gleitpunktzahl.zuDouble(f,
+								FastMath.invSqrt(f, x, magic, schritte));
+						max = Math.max(max, Math.abs(y
+								* Math.sqrt(Gleitpunktzahl.zuDouble(f, x)) - 1));
+						anzahl++;
+					}
+				}
+				if (!(max < NEWTON_GRENZEN[k][schritte]) && fehler++ < 3)
+					printErg("max. rel. Fehler mit " + schritte
+							+ " Newton-Schritten", "" + max, "< "
+							+ NEWTON_GRENZEN[k][schritte]);
+			}
+
+			/* Stapelvarianten gegen die Einzelauswertung, beliebige Bitmuster */
+			int n = 4096;
+			Gleitpunktvektor x = new Gleitpunktvektor(n, f);
+			Gleitpunktvektor ziel = new Gleitpunktvektor(n, f);
+			double[] werte = new double[n];
+			double[] zielDouble = new double[n];
+			for (int i = 0; i < n; i++) {
+				x.setBits(i, f.pack(random.nextBoolean(),
+						random.nextInt(f.getMaxExponent() + 1),
+						f.getFuehrendeEins()
+								| (random.nextLong() & f.getIEEEMantissenMaske())));
+				werte[i] = random.nextBoolean() ? x.getDouble(i)
+						: random.nextGaussian() * 1E3;
+			}
+			for (int schritte = 0; schritte <= 2; schritte++) {
+				FastMath.invSqrt(x, ziel, 0, n, magic, schritte);
+				FastMath.invSqrt(f, werte, zielDouble, 0, n, magic, schritte,
+						new long[100]);
+				for (int i = 0; i < n; i++) {
+					long ref = FastMath.invSqrt(f, x.getBits(i), magic, schritte);
+					if (ziel.getBits(i) != ref && fehler++ < 3)
+						printErg("invSqrt(Gleitpunktvektor, ..., " + schritte
+								+ ")[" + i + "]", Long.toHexString(ziel.getBits(i)),
+								Long.toHexString(ref));
+					double refDouble = Gleitpunktzahl.zuDouble(f, FastMath
+							.invSqrt(f, Gleitpunktzahl.ausDouble(f, werte[i]),
+									magic, schritte));
+					if (Double.doubleToRawLongBits(zielDouble[i]) != Double
+							.doubleToRawLongBits(refDouble) && fehler++ < 3)
+						printErg("invSqrt(double[], ..., " + schritte + ")["
+								+ i + "]", "" + zielDouble[i], "" + refDouble);
+				}
+				anzahl += 2 * n;
+			}
+			printZusammenfassung(f, anzahl, fehler);
+		}
+	}
+
+	public static void test_nativ() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von FastMath.invSqrt(float/double, int)");
+
+		Random random = new Random(1997);
+		int n = 1 << 18;
+		float[] xf = new float[n], zielFloat = new float[n];
+		double[] xd = new double[n], zielDouble = new double[n];
+		/* normalisierte positive Zahlen, gleichmaessig in den Bitmustern */
+		for (int i = 0; i < n; i++) {
+			xf[i] = Float.intBitsToFloat(Float.floatToRawIntBits(Float.MIN_NORMAL)
+					+ random.nextInt(Float.floatToRawIntBits(Float.MAX_VALUE)
+							- Float.floatToRawIntBits(Float.MIN_NORMAL)));
+			xd[i] = Double.longBitsToDouble(Double
+					.doubleToRawLongBits(Double.MIN_NORMAL)
+					+ (random.nextLong() >>> 1)
+					% (Double.doubleToRawLongBits(Double.MAX_VALUE) - Double
+							.doubleToRawLongBits(Double.MIN_NORMAL)));
+		}
+
+		long fehlerFloat = 0, fehlerDouble = 0;
+		for (int schritte = 0; schritte < FLOAT_GRENZEN.length; schritte++) {
+			FastMath.invSqrt(xf, zielFloat, 0, n, schritte);
+			FastMath.invSqrt(xd, zielDouble, 0, n, schritte);
+			double maxFloat = 0, maxDouble = 0;
+			for (int i = 0; i < n; i++) {
+				float yf = FastMath.invSqrt(xf[i], schritte);
+				double yd = FastMath.invSqrt(xd[i], schritte);
+				maxFloat = Math.max(maxFloat, Math.abs(yf * Math.sqrt(xf[i]) - 1));
+				maxDouble = Math.max(maxDouble, Math.abs(yd * Math.sqrt(xd[i]) - 1));
+				if (Float.floatToRawIntBits(zielFloat[i]) != Float
+						.floatToRawIntBits(yf) && fehlerFloat++ < 3)
+					printErg("invSqrt(float[], ..., " + schritte + ")[" + i
+							+ "]", "" + zielFloat[i], "" + yf);
+				if (Double.doubleToRawLongBits(zielDouble[i]) != Double
+						.doubleToRawLongBits(yd) && fehlerDouble++ < 3)
+					printErg("invSqrt(double[], ..., " + schritte + ")[" + i
+							+ "]", "" + zielDouble[i], "" + yd);
+			}
+			if (!(maxFloat < FLOAT_GRENZEN[schritte]) && fehlerFloat++ < 3)
+				printErg("max. rel. Fehler von invSqrt(float, " + schritte
+						+ ")", "" + maxFloat, "< " + FLOAT_GRENZEN[schritte]);
+			if (!(maxDouble < DOUBLE_GRENZEN[schritte]) && fehlerDouble++ < 3)
+				printErg("max. rel. Fehler von invSqrt(double, " + schritte
+						+ ")", "" + maxDouble, "< " + DOUBLE_GRENZEN[schritte]);
+		}
+		printZusammenfassung("float", FLOAT_GRENZEN.length * (long) n,
+				fehlerFloat);
+		printZusammenfassung("double", DOUBLE_GRENZEN.length * (long) n,
+				fehlerDouble);
+	}
+
+	public static void test_fehlerstatistik() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von Fehlerstatistik.parallel (gegen sequentiell)");
+
+		/* alle floats in [1, 4) und einige nicht endliche Fehler bei 0 */
+		final int von = Float.floatToRawIntBits(1.0f) - 8;
+		final int bis = Float.floatToRawIntBits(4.0f);
+		Fehlerstatistik.Stellen stellen = (i, s) -> {
+			float x = i < von + 8 ? 0 : Float.intBitsToFloat((int) i);
+			s.hinzufuegen(x, 1 / Math.sqrt(x), FastMath.invSqrt(x, 1));
+		};
+		Fehlerstatistik sequentiell = new Fehlerstatistik(24);
+		for (long i = von; i < bis; i++)
+			stellen.auswerten(i, sequentiell);
+
+		long fehler = 0;
+		long[] koernungen = { 1 << 20, 1000, 37 };
+		for (long koernung : koernungen) {
+			Fehlerstatistik parallel = Fehlerstatistik.parallel(von, bis, 24,
+					koernung, stellen);
+			String aufruf = "parallel(..., " + koernung + ", ...).";
+			if ((parallel.getAnzahl() != sequentiell.getAnzahl()
+					|| parallel.getNichtEndlich() != sequentiell.getNichtEndlich())
+					&& fehler++ < 3)
+				printErg(aufruf + "getAnzahl/getNichtEndlich",
+						parallel.getAnzahl() + "/" + parallel.getNichtEndlich(),
+						sequentiell.getAnzahl() + "/"
+								+ sequentiell.getNichtEndlich());
+			if ((parallel.getMaxRelErr() != sequentiell.getMaxRelErr()
+					|| parallel.getArgMaxRelErr() != sequentiell.getArgMaxRelErr()
+					|| parallel.getMaxAbsErr() != sequentiell.getMaxAbsErr())
+					&& fehler++ < 3)
+				printErg(aufruf + "getMaxRelErr/getArgMaxRelErr/getMaxAbsErr",
+						parallel.getMaxRelErr() + "/" + parallel.getArgMaxRelErr()
+								+ "/" + parallel.getMaxAbsErr(),
+						sequentiell.getMaxRelErr() + "/"
+								+ sequentiell.getArgMaxRelErr() + "/"
+								+ sequentiell.getMaxAbsErr());
+			if (!Arrays.equals(parallel.getHistogramm(),
+					sequentiell.getHistogramm()) && fehler++ < 3)
+				printErg(aufruf + "getHistogramm", Arrays
+						.toString(parallel.getHistogramm()), Arrays
+						.toString(sequentiell.getHistogramm()));
+			double[] p = { parallel.getMittlererRelErr(),
+					parallel.getRmsRelErr(), parallel.getMittlererAbsErr() };
+			double[] s = { sequentiell.getMittlererRelErr(),
+					sequentiell.getRmsRelErr(), sequentiell.getMittlererAbsErr() };
+			for (int k = 0; k < p.length; k++)
+				if (!(Math.abs(p[k] - s[k]) <= 4 * Math.ulp(s[k])) && fehler++ < 3)
+					printErg(aufruf + "Mittelwert " + k, "" + p[k], "" + s[k]);
+		}
+
+		/* koernung < 1 zaehlt als 1 und darf nicht endlos teilen */
+		long[] kleine = { 0, -5 };
+		for (long koernung : kleine) {
+			Fehlerstatistik parallel = Fehlerstatistik.parallel(von, von + 100,
+					24, koernung, stellen);
+			if (parallel.getAnzahl() != 100 && fehler++ < 3)
+				printErg("parallel(" + von + ", " + (von + 100) + ", 24, "
+						+ koernung + ", ...).getAnzahl()", ""
+						+ parallel.getAnzahl(), "100");
+		}
+		printZusammenfassung("Fehlerstatistik", koernungen.length
+				+ kleine.length, fehler);
+	}
+
+	private static void printZusammenfassung(Object f, long anzahl,
+			long fehler) {
+		if (fehler == 0)
+			System.out.println("    " + f + ": Richtiges Ergebnis (" + anzahl
+					+ " Faelle)");
+		else
+			System.out.println("    " + f + ": " + fehler + " Fehler in "
+					+ anzahl + " Faellen");
+	}
+
+	private static void printErg(String aufruf, String erg, String checkref) {
+		System.out.println("    Fehler!\n      Es wurde gerechnet:            "
+				+ aufruf + "\n      Ihr Ergebnis lautet:           " + erg
+				+ "\n      Das Korrekte Ergebnis lautet:  " + checkref + "\n");
+	}
+}
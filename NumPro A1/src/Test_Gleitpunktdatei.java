@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class Test_Gleitpunktdatei {
+/**
+ * Test von Gleitpunktdatei: Zahlen (auch 0, -0, Inf und NaN) werden in
+ * verschiedenen Formaten geschrieben, wieder gelesen und bitweise
+ * verglichen. Die Formate decken 3 bis 64 Bits pro Zahl ab, die Anzahl ist
+ * kein Vielfaches von 64, damit auch das letzte, aufgefuellte Wort geprueft
+ * wird. Die reservierten Bytes 24 bis 31 des Kopfes muessen 0 sein; ist
+ * eines davon gesetzt, muss der Leser die Datei ablehnen.
+ */
+
+	private static final int[][] FORMATE = { { 1, 1 }, { 2, 4 }, { 4, 8 },
+			{ 8, 24 }, { 11, 52 }, { 3, 60 } };
+
+	public static void main(String[] argv) throws IOException {
+		test_Gleitpunktdatei();
+	}
+
+	public static void test_Gleitpunktdatei() throws IOException {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von Gleitpunktdatei (Schreiben und Lesen)");
+
+		Random random = new Random(17);
+		Path datei = Files.createTempFile("gleitpunktdatei", ".gpz");
+		try {
+			for (int[] fm : FORMATE) {
+				Gleitpunktformat f = new Gleitpunktformat(fm[0], fm[1]);
+				int n = 100000 + random.nextInt(64);
+				Gleitpunktvektor x = new Gleitpunktvektor(n, f);
+				for (int i = 0; i < n; i++) {
+					switch (i % 8) {
+					case 0:
+						x.setDouble(i, 0.0);
+						break;
+					case 1:
+						x.setBits(i, f.vorzeichenBit());
+						break;
+					case 2:
+						x.setDouble(i, i % 16 == 2 ? Double.NEGATIVE_INFINITY
+								: Double.NaN);
+						break;
+					default:
+						x.setDouble(i, Math.scalb(random.nextGaussian(),
+								random.nextInt(20) - 10));
+					}
+				}
+
+				Gleitpunktdatei.schreibe(datei, x, 0, n);
+				long fehler = 0;
+				if (Files.size(datei) != Gleitpunktdatei.dateigroesse(f, n)) {
+					fehler++;
+					printErg(f + " Dateigroesse", "" + Files.size(datei), ""
+							+ Gleitpunktdatei.dateigroesse(f, n));
+				}
+
+				Gleitpunktvektor y = Gleitpunktdatei.lese(datei);
+				try (Gleitpunktdatei.Leser l = new Gleitpunktdatei.Leser(datei)) {
+					if (!l.getFormat().equals(f) || l.getAnzahl() != n || y.length() != n) {
+						fehler++;
+						printErg(f + " Kopf", l.getFormat() + ", " + l.getAnzahl(),
+								f + ", " + n);
+					}
+					for (int i = 0; i < Math.min(n, y.length()); i++) {
+						if (y.getBits(i) != x.getBits(i)
+								|| l.getBits(i) != x.getBits(i)) {
+							if (fehler++ < 3)
+								printErg(f + " Zahl " + i, Long.toHexString(y
+										.getBits(i)), Long.toHexString(x.getBits(i)));
+						}
+					}
+				}
+
+				/* reservierte Bytes im Kopf */
+				byte[] bytes = Files.readAllBytes(datei);
+				for (int i = 24; i < Gleitpunktdatei.KOPF; i++) {
+					if (bytes[i] != 0 && fehler++ < 3)
+						printErg(f + " Kopf, Byte " + i, "" + bytes[i], "0");
+				}
+				bytes[31] = 1;
+				Files.write(datei, bytes);
+				try (Gleitpunktdatei.Leser l = new Gleitpunktdatei.Leser(datei)) {
+					if (fehler++ < 3)
+						printErg(f + " Leser mit Byte 31 = 1", "keine Exception",
+								"IOException");
+				} catch (IOException e) {
+					/* erwartet */
+				}
+				if (fehler == 0)
+					System.out.println("    " + f + ": Richtiges Ergebnis (" + n
+							+ " Zahlen, " + bytes.length + " Bytes)");
+			}
+		} finally {
+			Files.deleteIfExists(datei);
+		}
+	}
+
+	private static void printErg(String aufruf, String erg, String checkref) {
+		System.out.println("    Fehler!\n      Es wurde gerechnet:            "
+				+ aufruf + "\n      Ihr Ergebnis lautet:           " + erg
+				+ "\n      Das Korrekte Ergebnis lautet:  " + checkref + "\n");
+	}
+}
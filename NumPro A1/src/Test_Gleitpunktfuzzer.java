@@ -0,0 +1,481 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+public class Test_Gleitpunktfuzzer {
+/**
+ * Differentieller Fuzzer fuer die Kerne von Gleitpunktzahl (add, sub, mul,
+ * ausDouble). Fuer zufaellige Operanden aus vielen Formaten wird das exakte
+ * Ergebnis mit BigDecimal berechnet, mit RoundingMode.HALF_UP auf
+ * sizeMantisse Stellen gerundet und die Bitfolge mit der von Gleitpunktzahl
+ * verglichen.
+ *
+ * Die Operanden werden so gewaehlt, dass die kritischen Faelle haeufig
+ * vorkommen: Sonderwerte, Exponenten am Rand, Mantissen nur aus Einsen,
+ * Ausloeschung, Exponentenunterschiede um sizeMantisse herum und
+ * double-Werte genau in der Mitte zwischen zwei Zahlen.
+ *
+ * Die Faelle werden in Bloecken mit eigenem, aus dem Startwert abgeleiteten
+ * Zufallsgenerator parallel ausgewertet; ein Lauf ist daher unabhaengig von
+ * der Anzahl der Threads reproduzierbar. Fehlerhafte Faelle werden vor der
+ * Ausgabe verkleinert (weniger Mantissenbits, Exponenten nahe expOffset,
+ * positives Vorzeichen), solange der Fehler bestehen bleibt.
+ *
+ * Aufruf: java Test_Gleitpunktfuzzer [Anzahl Faelle] [Startwert]
+ */
+
+	private static final int[][] FORMATE = { { 1, 1 }, { 2, 2 }, { 2, 4 },
+			{ 4, 8 }, { 5, 11 }, { 3, 12 }, { 8, 24 }, { 8, 32 }, { 11, 20 },
+			{ 2, 30 }, { 11, 52 }, { 10, 53 }, { 3, 60 } };
+
+	private static final int ADD = 0, SUB = 1, MUL = 2, AUS_DOUBLE = 3;
+	private static final String[] OPERATIONEN = { "add", "sub", "mul",
+			"ausDouble" };
+
+	private static final int FAELLE_PRO_BLOCK = 4096;
+	private static final int MAX_AUSGABE = 5;
+
+	/* 2^k fuer k in [-POT_MAX, POT_MAX] als exakte BigDecimal */
+	private static final int POT_MAX = 2 * 1024 + 2 * 64;
+	private static final BigDecimal[] ZWEIERPOTENZEN = new BigDecimal[2 * POT_MAX + 1];
+
+	static {
+		BigInteger fuenf = BigInteger.ONE;
+		for (int k = 0; k <= POT_MAX; k++) {
+			ZWEIERPOTENZEN[POT_MAX + k] = new BigDecimal(BigInteger.ONE.shiftLeft(k));
+			ZWEIERPOTENZEN[POT_MAX - k] = new BigDecimal(fuenf, k);
+			fuenf = fuenf.multiply(BigInteger.valueOf(5));
+		}
+	}
+
+	/* ein Testfall; bei ausDouble sind in a die Bits des double abgelegt */
+	private static class Fall {
+		final Gleitpunktformat f;
+		final int operation;
+		final long a, b;
+
+		Fall(Gleitpunktformat f, int operation, long a, long b) {
+			this.f = f;
+			this.operation = operation;
+			this.a = a;
+			this.b = b;
+		}
+
+		public String toString() {
+			if (operation == AUS_DOUBLE)
+				return f + " ausDouble(" + Double.longBitsToDouble(a) + ")";
+			return f + " " + OPERATIONEN[operation] + "(0x" + Long.toHexString(a)
+					+ " = " + text(f, a) + ", 0x" + Long.toHexString(b) + " = "
+					+ text(f, b) + ")";
+		}
+	}
+
+	/* Zaehler eines Teils der Faelle und die ersten fehlerhaften Faelle */
+	private static class Ergebnis {
+		final long[] anzahl = new long[OPERATIONEN.length];
+		final long[] fehler = new long[OPERATIONEN.length];
+		final List<Fall> ausgabe = new ArrayList<Fall>();
+
+		Ergebnis zusammenfuehren(Ergebnis e) {
+			for (int i = 0; i < anzahl.length; i++) {
+				anzahl[i] += e.anzahl[i];
+				fehler[i] += e.fehler[i];
+			}
+			for (Fall c : e.ausgabe)
+				if (ausgabe.size() < MAX_AUSGABE)
+					ausgabe.add(c);
+			return this;
+		}
+	}
+
+	public static void main(String[] argv) {
+		long faelle = argv.length > 0 ? Long.parseLong(argv[0]) : 1000000;
+		long startwert = argv.length > 1 ? Long.parseLong(argv[1]) : 4711;
+		test_fuzzing(faelle, startwert);
+	}
+
+	public static void test_fuzzing(long faelle, final long startwert) {
+		System.out.println("-----------------------------------------");
+		System.out.println("Fuzzing von add, sub, mul und ausDouble gegen BigDecimal");
+
+		long bloecke = (faelle + FAELLE_PRO_BLOCK - 1) / FAELLE_PRO_BLOCK;
+		long start = System.nanoTime();
+		Ergebnis e = LongStream.range(0, bloecke).parallel()
+				.mapToObj(block -> block(startwert, block))
+				.reduce(Ergebnis::zusammenfuehren).orElse(new Ergebnis());
+		double sekunden = (System.nanoTime() - start) / 1e9;
+
+		long gesamt = 0;
+		long fehler = 0;
+		for (int op = 0; op < OPERATIONEN.length; op++) {
+			gesamt += e.anzahl[op];
+			fehler += e.fehler[op];
+			System.out.println(String.format("    %-10s %10d Faelle, %d Fehler",
+					OPERATIONEN[op], e.anzahl[op], e.fehler[op]));
+		}
+		System.out.println(String.format(
+				"    %d Faelle in %.2f s (%.0f Faelle/s, %d Threads), Startwert %d",
+				gesamt, sekunden, gesamt / sekunden, Runtime.getRuntime()
+						.availableProcessors(), startwert));
+		if (fehler == 0)
+			System.out.println("    Richtiges Ergebnis\n");
+		for (Fall fall : e.ausgabe) {
+			Fall klein = verkleinere(fall);
+			System.out.println("    Fehler!\n      Es wurde gerechnet:            "
+					+ klein + "\n      Ihr Ergebnis lautet:           "
+					+ text(klein.f, berechne(klein))
+					+ "\n      Das Korrekte Ergebnis lautet:  "
+					+ text(klein.f, referenz(klein)) + "\n      (unverkleinert: "
+					+ fall + ")\n");
+		}
+	}
+
+	/* wertet den Block block aus */
+	private static Ergebnis block(long startwert, long block) {
+		Random random = new Random(startwert * 0x9E3779B97F4A7C15L + block);
+		Ergebnis e = new Ergebnis();
+		for (int i = 0; i < FAELLE_PRO_BLOCK; i++) {
+			Fall fall = zufall(random);
+			e.anzahl[fall.operation]++;
+			if (berechne(fall) != referenz(fall)) {
+				e.fehler[fall.operation]++;
+				if (e.ausgabe.size() < MAX_AUSGABE)
+					e.ausgabe.add(fall);
+			}
+		}
+		return e;
+	}
+
+	/* Ergebnis von Gleitpunktzahl */
+	private static long berechne(Fall c) {
+		switch (c.operation) {
+		case ADD:
+			return Gleitpunktzahl.add(c.f, c.a, c.b);
+		case SUB:
+			return Gleitpunktzahl.sub(c.f, c.a, c.b);
+		case MUL:
+			return Gleitpunktzahl.mul(c.f, c.a, c.b);
+		default:
+			return Gleitpunktzahl.ausDouble(c.f, Double.longBitsToDouble(c.a));
+		}
+	}
+
+	/*
+	 * Referenzergebnis. Die Sonderwerte werden wie in Gleitpunktzahl
+	 * festgelegt behandelt: bei add ist die 0L neutral und der erste Operand
+	 * mit maximalem Exponenten (Inf oder NaN) ist das Ergebnis, bei mul ist
+	 * jedes Produkt mit NaN sowie Inf * 0 das NaN aus setNaN.
+	 */
+	private static long referenz(Fall c) {
+		Gleitpunktformat f = c.f;
+		int max = f.getMaxExponent();
+		long a = c.a;
+		long b = c.b;
+		switch (c.operation) {
+		case AUS_DOUBLE: {
+			double d = Double.longBitsToDouble(a);
+			if (d == 0)
+				return 0L;
+			if (Double.isInfinite(d))
+				return f.pack(d < 0, max, 0);
+			if (Double.isNaN(d))
+				return f.pack(false, max, 1);
+			return runde(f, d < 0, new BigDecimal(Math.abs(d)));
+		}
+		case ADD:
+			return summe(f, a, b);
+		case SUB: {
+			/* 0 - 0 ergibt 0L, nicht das negierte Bitmuster -0 */
+			long r = summe(f, a, b ^ f.vorzeichenBit());
+			return (r == f.vorzeichenBit()) ? 0L : r;
+		}
+		default: {
+			int ea = f.exponent(a);
+			int eb = f.exponent(b);
+			long ma = f.mantisse(a);
+			long mb = f.mantisse(b);
+			boolean vorzeichen = f.vorzeichen(a) ^ f.vorzeichen(b);
+			if ((ea == max && ma != 0) || (eb == max && mb != 0))
+				return f.pack(false, max, 1);
+			if (ea == max || eb == max) {
+				if ((ea != max && ma == 0) || (eb != max && mb == 0))
+					return f.pack(false, max, 1);
+				return f.pack(vorzeichen, max, 0);
+			}
+			if (ma == 0 || mb == 0)
+				return 0L;
+			return runde(f, vorzeichen, wert(f, a).multiply(wert(f, b)).abs());
+		}
+		}
+	}
+
+	/* Referenzergebnis von a + b, siehe referenz */
+	private static long summe(Gleitpunktformat f, long a, long b) {
+		int max = f.getMaxExponent();
+		if (a == 0L)
+			return b;
+		if (b == 0L)
+			return a;
+		if (f.exponent(a) == max)
+			return a;
+		if (f.exponent(b) == max)
+			return b;
+		BigDecimal summe = wert(f, a).add(wert(f, b));
+		return runde(f, summe.signum() < 0, summe.abs());
+	}
+
+	/* exakter Wert der endlichen gepackten Zahl bits */
+	private static BigDecimal wert(Gleitpunktformat f, long bits) {
+		BigDecimal w = new BigDecimal(f.mantisse(bits)).multiply(zweiHoch(f
+				.exponent(bits) - f.getExpOffset() - (f.getSizeMantisse() - 1)));
+		return f.vorzeichen(bits) ? w.negate() : w;
+	}
+
+	/*
+	 * rundet betrag > 0 mit HALF_UP auf sizeMantisse Stellen und behandelt
+	 * Ueber- und Unterlauf wie Gleitpunktzahl.normalisiere
+	 */
+	private static long runde(Gleitpunktformat f, boolean vorzeichen,
+			BigDecimal betrag) {
+		if (betrag.signum() == 0)
+			return 0L;
+		int m = f.getSizeMantisse();
+		BigDecimal untereGrenze = zweiHoch(m - 1);
+		BigDecimal obereGrenze = zweiHoch(m);
+
+		/* q mit 2^(m-1) <= betrag / 2^q < 2^m, zuerst geschaetzt */
+		int q = (int) Math.floor((betrag.precision() - betrag.scale() - 1)
+				* 3.321928094887362) - (m - 1);
+		BigDecimal skaliert = betrag.multiply(zweiHoch(-q));
+		while (skaliert.compareTo(obereGrenze) >= 0) {
+			skaliert = skaliert.multiply(zweiHoch(-1));
+			q++;
+		}
+		while (skaliert.compareTo(untereGrenze) < 0) {
+			skaliert = skaliert.multiply(zweiHoch(1));
+			q--;
+		}
+
+		BigInteger mantisse = skaliert.setScale(0, RoundingMode.HALF_UP)
+				.toBigIntegerExact();
+		if (mantisse.bitLength() > m) {
+			mantisse = mantisse.shiftRight(1);
+			q++;
+		}
+		long exponent = (long) q + (m - 1) + f.getExpOffset();
+		if (exponent >= f.getMaxExponent())
+			return f.pack(vorzeichen, f.getMaxExponent(), 0);
+		if (exponent == -1)
+			return f.pack(vorzeichen, 0, f.getFuehrendeEins());
+		if (exponent < -1)
+			return 0L;
+		return f.pack(vorzeichen, (int) exponent, mantisse.longValue());
+	}
+
+	private static BigDecimal zweiHoch(int k) {
+		return ZWEIERPOTENZEN[POT_MAX + k];
+	}
+
+	/* erzeugt einen zufaelligen Testfall */
+	private static Fall zufall(Random r) {
+		int[] fm = FORMATE[r.nextInt(FORMATE.length)];
+		Gleitpunktformat f = new Gleitpunktformat(fm[0], fm[1]);
+		int operation = r.nextInt(OPERATIONEN.length);
+		if (operation == AUS_DOUBLE)
+			return new Fall(f, operation, Double.doubleToRawLongBits(zufallDouble(
+					f, r)), 0);
+		long a = zufallZahl(f, r);
+		long b = (r.nextBoolean() && f.exponent(a) < f.getMaxExponent()) ? nachbar(
+				f, a, r) : zufallZahl(f, r);
+		return new Fall(f, operation, a, b);
+	}
+
+	/* zufaellige gepackte Zahl mit vielen Sonderfaellen */
+	private static long zufallZahl(Gleitpunktformat f, Random r) {
+		int max = f.getMaxExponent();
+		boolean vorzeichen = r.nextBoolean();
+		switch (r.nextInt(24)) {
+		case 0:
+			return 0L;
+		case 1:
+			return f.vorzeichenBit(); /* Bitmuster -0 als Eingabe */
+		case 2:
+			return f.pack(vorzeichen, max, 0);
+		case 3:
+			return f.pack(false, max, 1 + (zufallBits(r, f.getSizeMantisse()) >>> 1));
+		case 4:
+			return f.pack(vorzeichen, 0, f.getFuehrendeEins());
+		case 5:
+			return f.pack(vorzeichen, max - 1, 2 * f.getFuehrendeEins() - 1);
+		default:
+		}
+		int exponent;
+		if (r.nextInt(4) == 0) {
+			int[] rand = { 0, 1, max - 2, max - 1, f.getExpOffset(),
+					f.getExpOffset() + 1 };
+			exponent = Math.max(0, rand[r.nextInt(rand.length)]);
+		} else {
+			exponent = r.nextInt(max);
+		}
+		return f.pack(vorzeichen, exponent, zufallMantisse(f, r));
+	}
+
+	/* Zahl mit aehnlichem Exponenten wie a, fuer Ausloeschung und Sticky-Bits */
+	private static long nachbar(Gleitpunktformat f, long a, Random r) {
+		int m = f.getSizeMantisse();
+		int exponent = f.exponent(a) + r.nextInt(2 * m + 9) - (m + 4);
+		exponent = Math.max(0, Math.min(f.getMaxExponent() - 1, exponent));
+		long mantisse = f.mantisse(a);
+		if (mantisse == 0 || r.nextBoolean())
+			mantisse = zufallMantisse(f, r);
+		else
+			mantisse = Math.max(f.getFuehrendeEins(), Math.min(
+					2 * f.getFuehrendeEins() - 1, mantisse + r.nextInt(7) - 3));
+		return f.pack(r.nextBoolean(), exponent, mantisse);
+	}
+
+	/* normalisierte Mantisse: zufaellig, nur Einsen, nur fuehrende 1, wenige Bits */
+	private static long zufallMantisse(Gleitpunktformat f, Random r) {
+		long eins = f.getFuehrendeEins();
+		long rest = eins - 1;
+		switch (r.nextInt(6)) {
+		case 0:
+			return eins | rest;
+		case 1:
+			return eins;
+		case 2:
+			return eins | (rest & (1L << r.nextInt(f.getSizeMantisse())))
+					| (rest & 1);
+		default:
+			return eins | (rest & zufallBits(r, f.getSizeMantisse()));
+		}
+	}
+
+	/* zufaelliger double im Bereich des Formats, oft genau in der Mitte */
+	private static double zufallDouble(Gleitpunktformat f, Random r) {
+		switch (r.nextInt(16)) {
+		case 0:
+			return 0.0;
+		case 1:
+			return Double.NaN;
+		case 2:
+			return r.nextBoolean() ? Double.POSITIVE_INFINITY
+					: Double.NEGATIVE_INFINITY;
+		case 3:
+			return Double.longBitsToDouble(r.nextLong() & 0x800fffffffffffffL);
+		default:
+		}
+		int k = f.getMaxExponent() - f.getExpOffset() + 2;
+		int unten = -f.getExpOffset() - 3;
+		int exp = Math.max(-1074, Math.min(1023, unten + r.nextInt(k - unten + 1)));
+		long bits = r.nextLong() & ((1L << 52) - 1);
+		int rest = 52 - (f.getSizeMantisse() - 1);
+		if (rest > 0 && r.nextBoolean()) {
+			/* genau in der Mitte: erste abgeschnittene Stelle 1, Rest 0 */
+			bits = (bits & -(1L << rest)) | (1L << (rest - 1));
+		}
+		double d = Math.scalb(Double.longBitsToDouble(0x3ff0000000000000L | bits),
+				exp);
+		return r.nextBoolean() ? -d : d;
+	}
+
+	private static long zufallBits(Random r, int n) {
+		return n >= 64 ? r.nextLong() : r.nextLong() & ((1L << n) - 1);
+	}
+
+	/*
+	 * verkleinert einen fehlerhaften Fall schrittweise, solange der Fehler
+	 * bestehen bleibt: Vorzeichen positiv, niedrigste Mantissenbits loeschen,
+	 * Exponenten (mit gleichem Abstand) zu expOffset und zueinander schieben
+	 */
+	private static Fall verkleinere(Fall c) {
+		for (int schritte = 0; schritte < 100000; schritte++) {
+			Fall kleiner = null;
+			for (Fall k : kandidaten(c)) {
+				if (berechne(k) != referenz(k)) {
+					kleiner = k;
+					break;
+				}
+			}
+			if (kleiner == null)
+				return c;
+			c = kleiner;
+		}
+		return c;
+	}
+
+	private static List<Fall> kandidaten(Fall c) {
+		List<Fall> k = new ArrayList<Fall>();
+		Gleitpunktformat f = c.f;
+		if (c.operation == AUS_DOUBLE) {
+			long bits = c.a;
+			long bruch = bits & ((1L << 52) - 1);
+			if (bits < 0)
+				k.add(new Fall(f, c.operation, bits & Long.MAX_VALUE, 0));
+			if (bruch != 0)
+				k.add(new Fall(f, c.operation, bits & (bits - 1), 0));
+			double d = Double.longBitsToDouble(bits);
+			if (!Double.isNaN(d) && !Double.isInfinite(d) && d != 0) {
+				int exp = Math.getExponent(d);
+				if (exp > -1022 && exp != 0)
+					k.add(new Fall(f, c.operation, Double.doubleToRawLongBits(Math
+							.scalb(d, exp > 0 ? -1 : 1)), 0));
+			}
+			return k;
+		}
+
+		long a = c.a;
+		long b = c.b;
+		if (f.vorzeichen(a))
+			k.add(new Fall(f, c.operation, a ^ f.vorzeichenBit(), b));
+		if (f.vorzeichen(b))
+			k.add(new Fall(f, c.operation, a, b ^ f.vorzeichenBit()));
+		if (endlich(f, a) && f.mantisse(a) != f.getFuehrendeEins())
+			k.add(new Fall(f, c.operation, loescheBit(f, a), b));
+		if (endlich(f, b) && f.mantisse(b) != f.getFuehrendeEins())
+			k.add(new Fall(f, c.operation, a, loescheBit(f, b)));
+		if (endlich(f, a) && endlich(f, b)) {
+			int ea = f.exponent(a);
+			int eb = f.exponent(b);
+			int richtung = Integer.signum(f.getExpOffset() - Math.max(ea, eb));
+			if (richtung == 0)
+				richtung = Integer.signum(f.getExpOffset() - Math.min(ea, eb));
+			if (richtung != 0 && gueltig(f, ea + richtung)
+					&& gueltig(f, eb + richtung))
+				k.add(new Fall(f, c.operation, mitExponent(f, a, ea + richtung),
+						mitExponent(f, b, eb + richtung)));
+			if (eb != ea)
+				k.add(new Fall(f, c.operation, a, mitExponent(f, b, eb
+						+ Integer.signum(ea - eb))));
+		}
+		return k;
+	}
+
+	private static boolean endlich(Gleitpunktformat f, long bits) {
+		return f.exponent(bits) < f.getMaxExponent() && f.mantisse(bits) != 0;
+	}
+
+	private static boolean gueltig(Gleitpunktformat f, int exponent) {
+		return exponent >= 0 && exponent < f.getMaxExponent();
+	}
+
+	private static long loescheBit(Gleitpunktformat f, long bits) {
+		long m = f.mantisse(bits);
+		return f.pack(f.vorzeichen(bits), f.exponent(bits), m & (m - 1)
+				| f.getFuehrendeEins());
+	}
+
+	private static long mitExponent(Gleitpunktformat f, long bits, int exponent) {
+		return f.pack(f.vorzeichen(bits), exponent, f.mantisse(bits));
+	}
+
+	private static String text(Gleitpunktformat f, long bits) {
+		Gleitpunktzahl x = new Gleitpunktzahl(f);
+		x.setBits(bits);
+		return x + " (" + x.toDouble() + ")";
+	}
+}
@@ -0,0 +1,604 @@
+import java.util.Random;
+
+/**
+ * Differenztest: vergleicht die Schiebe-/Masken-Kerne von normalisiere und
+ * der IEEE-Umwandlung in FastMath mit der bisherigen Umsetzung ueber
+ * Math.pow. Die Referenzen sind unten als ...Alt hinterlegt.
+ *
+ * Verglichen wird nur dort, wo die alte Umsetzung keinen int-Ueberlauf hat,
+ * d.h. fuer Mantissen < 2^31, sizeMantisse <= 30 und
+ * sizeExponent + sizeMantisse <= 32 bei der IEEE-Darstellung.
+ *
+ * Fuer breite Formate (10/53 wie double mit kleinerem Exponenten) werden add
+ * und mul zusaetzlich mit dem exakten Ergebnis aus double-Arithmetik
+ * verglichen: TwoSum bzw. Math.fma liefern den Rundungsfehler exakt, so dass
+ * sich das Ergebnis mit Aufrunden bei genau 1/2 bestimmen laesst.
+ *
+ * Die Kerne in Gleitpunktblas werden mit Schleifen ueber die Objekt-API von
+ * Gleitpunktzahl verglichen, die Reduktionen zusaetzlich mit verschiedener
+ * Koernung (das Ergebnis darf nicht von der Parallelisierung abhaengen).
+ * Das Produkt, das Objekt-API und Kerne gemeinsam verwenden, wird dabei wie
+ * bei den breiten Formaten gegen das exakte, in double gerundete Produkt
+ * geprueft.
+ *
+ * Die von Gleitpunktgenerator erzeugte Klasse Gleitpunkt_E4M8 muss fuer alle
+ * Zahlen des Formats bitweise dieselben Ergebnisse liefern wie die
+ * allgemeinen Kerne in Gleitpunktzahl. Ebenso die Stapelkerne in
+ * Gleitpunktstapel, auch fuer Sonderfaelle und beliebige Bitmuster; mit
+ * java --add-modules jdk.incubator.vector wird dabei die SIMD-Fassung in
+ * Gleitpunktstapel_simd geprueft, sonst die skalare Schleife.
+ *
+ * Die Tabellen in Gleitpunkttabelle werden bitweise mit add, sub, zuDouble
+ * und FastMath.invSqrt verglichen (bis auf die Abbildung aller NaN auf ein
+ * NaN), fuer 2/4 und 3/5 mit allen Paaren von Zahlen, fuer 4/8 mit
+ * zufaelligen Paaren.
+ */
+public class Test_Gleitpunktkerne {
+
+	private static final int[][] FORMATE = { { 1, 1 }, { 2, 4 }, { 4, 8 },
+			{ 5, 10 }, { 3, 12 }, { 8, 16 }, { 8, 24 }, { 11, 20 }, { 2, 30 } };
+
+	public static void main(String[] argv) {
+		test_normalisiere();
+		test_ieee();
+		test_breiteFormate();
+		test_blas();
+		test_spezialisiert();
+		test_stapel();
+		test_tabelle();
+	}
+
+	public static void test_normalisiere() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von normalisiere (Schiebe-Kern gegen Math.pow)");
+
+		Random random = new Random(4711);
+		for (int[] fm : FORMATE) {
+			Gleitpunktformat f = new Gleitpunktformat(fm[0], fm[1]);
+			int m = f.getSizeMantisse();
+			long fehler = 0;
+			long anzahl = 0;
+
+			for (int exponent = -m - 3; exponent <= f.getMaxExponent() + 2; exponent++) {
+				/* kleine Mantissen vollstaendig, grosse zufaellig */
+				int bits = Math.min(m + 6, 31);
+				int vollstaendig = 1 << Math.min(bits, 12);
+				for (int i = 0; i < vollstaendig + 200; i++) {
+					int mantisse = (i < vollstaendig) ? i
+							: random.nextInt() >>> (32 - bits);
+					boolean vorzeichen = (i & 1) == 1;
+					long neu = Gleitpunktzahl.normalisiere(f, vorzeichen,
+							exponent, mantisse);
+					long alt = normalisiereAlt(f, vorzeichen, exponent,
+							mantisse);
+					anzahl++;
+					if (neu != alt) {
+						if (fehler++ < 3)
+							printErg(f + " normalisiere(" + vorzeichen + ", "
+									+ exponent + ", " + mantisse + ")",
+									Long.toHexString(neu), Long.toHexString(alt));
+					}
+				}
+			}
+			printZusammenfassung(f, anzahl, fehler);
+		}
+	}
+
+	public static void test_ieee() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von gleitpunktzahlToIEEE und iEEEToGleitpunktzahl");
+
+		for (int[] fm : FORMATE) {
+			if (fm[0] + fm[1] > 32)
+				continue;
+			Gleitpunktformat f = new Gleitpunktformat(fm[0], fm[1]);
+			long fehler = 0;
+			long anzahl = 0;
+			Random random = new Random(815);
+
+			for (int i = 0; i < 100000; i++) {
+				int ieee = (fm[0] + fm[1] < 16 && i < (1 << (fm[0] + fm[1])))
+						? i : random.nextInt() >>> (32 - fm[0] - fm[1]);
+
+				/* IEEE -> Gleitpunktzahl */
+				Gleitpunktzahl alt = iEEEToGleitpunktzahlAlt(ieee, f);
+				Gleitpunktzahl neu = FastMath.iEEEToGleitpunktzahl(ieee, f);
+				anzahl++;
+				if (alt.vorzeichen != neu.vorzeichen
+						|| alt.exponent != neu.exponent
+						|| alt.mantisse != neu.mantisse) {
+					if (fehler++ < 3)
+						printErg(f + " iEEEToGleitpunktzahl(" + ieee + ")",
+								neu.toString(), alt.toString());
+				}
+
+				/* Gleitpunktzahl -> IEEE */
+				int a = gleitpunktzahlToIEEEAlt(alt);
+				int n = FastMath.gleitpunktzahlToIEEE(alt);
+				anzahl++;
+				if (a != n) {
+					if (fehler++ < 3)
+						printErg(f + " gleitpunktzahlToIEEE(" + alt + ")",
+								Integer.toHexString(n), Integer.toHexString(a));
+				}
+			}
+			printZusammenfassung(f, anzahl, fehler);
+		}
+	}
+
+	public static void test_breiteFormate() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von add und mul in breiten Formaten (gegen TwoSum/fma)");
+
+		Gleitpunktformat f = new Gleitpunktformat(10, 53);
+		Random random = new Random(1234);
+		long fehler = 0;
+		long anzahl = 0;
+		for (int i = 0; i < 1000000; i++) {
+			double x = Math.scalb(random.nextDouble() + 0.5,
+					random.nextInt(400) - 200);
+			double y;
+			switch (i % 4) {
+			case 0: /* genau in der Mitte zwischen zwei Zahlen */
+				y = (2 * random.nextInt(64) + 1) * Math.ulp(x) / 2;
+				break;
+			case 1: /* grosser Exponentenunterschied, nur Sticky-Bits */
+				y = Math.scalb(random.nextDouble(), -random.nextInt(120));
+				break;
+			case 2: /* Ausloeschung */
+				y = -x * (1 + random.nextInt(8) * 0x1p-52);
+				break;
+			default:
+				y = Math.scalb(random.nextDouble() + 0.5,
+						random.nextInt(400) - 200);
+			}
+			if (random.nextBoolean())
+				y = -y;
+
+			long a = Gleitpunktzahl.ausDouble(f, x);
+			long b = Gleitpunktzahl.ausDouble(f, y);
+			anzahl += 3;
+			if (Gleitpunktzahl.zuDouble(f, a) != x) {
+				if (fehler++ < 3)
+					printErg(f + " ausDouble(" + x + ")",
+							"" + Gleitpunktzahl.zuDouble(f, a), "" + x);
+			}
+
+			double summe = Gleitpunktzahl.zuDouble(f, Gleitpunktzahl.add(f, a, b));
+			double s = x + y;
+			double bs = s - x;
+			double fehlerSumme = (x - (s - bs)) + (y - bs);
+			double refSumme = rundeHalbAuf(s, fehlerSumme);
+			if (Double.doubleToLongBits(summe) != Double.doubleToLongBits(refSumme)
+					&& !(summe == 0 && refSumme == 0)) {
+				if (fehler++ < 3)
+					printErg(f + " add(" + x + ", " + y + ")", "" + summe, ""
+							+ refSumme);
+			}
+
+			/* Produkte mit 54 Stellen liegen genau in der Mitte */
+			if (i % 4 == 0)
+				y = (2 * random.nextInt(1 << 20) + 1) * Math.scalb(0x1p52 + 1,
+						-random.nextInt(200));
+			b = Gleitpunktzahl.ausDouble(f, y);
+			double produkt = Gleitpunktzahl.zuDouble(f, Gleitpunktzahl.mul(f, a, b));
+			double p = x * y;
+			double refProdukt = rundeHalbAuf(p, Math.fma(x, y, -p));
+			if (produkt != refProdukt) {
+				if (fehler++ < 3)
+					printErg(f + " mul(" + x + ", " + y + ")", "" + produkt, ""
+							+ refProdukt);
+			}
+		}
+		printZusammenfassung(f, anzahl, fehler);
+	}
+
+	public static void test_blas() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von Gleitpunktblas (gegen Gleitpunktzahl-Objekte)");
+
+		int n = 100003;
+		Random random = new Random(99);
+		for (int[] fm : new int[][] { { 4, 8 }, { 8, 11 }, { 8, 24 }, { 10, 53 } }) {
+			Gleitpunktformat f = new Gleitpunktformat(fm[0], fm[1]);
+			long fehler = 0;
+			long anzahl = 0;
+
+			double[] werte = new double[n];
+			for (int i = 0; i < n; i++)
+				werte[i] = (random.nextDouble() - 0.3) * (1 + random.nextInt(4));
+			Gleitpunktvektor x = new Gleitpunktvektor(werte, f);
+			for (int i = 0; i < n; i++)
+				werte[i] = random.nextDouble() - 0.5;
+			Gleitpunktvektor y = new Gleitpunktvektor(werte, f);
+			Gleitpunktzahl alpha = new Gleitpunktzahl(-0.7, f);
+
+			/*
+			 * Objekt-Referenz fuer summeSequentiell und axpy; mul, das alle
+			 * Kerne verwenden, gegen das in double gerundete exakte Produkt
+			 */
+			double minNormal = Gleitpunktzahl.zuDouble(f,
+					f.pack(false, 1, f.getFuehrendeEins()));
+			double max = Gleitpunktzahl.zuDouble(f, f.pack(false,
+					f.getMaxExponent() - 1, 2 * f.getFuehrendeEins() - 1));
+			Gleitpunktzahl summe = new Gleitpunktzahl(0, f);
+			Gleitpunktvektor ziel = new Gleitpunktvektor(n, f);
+			for (int i = 0; i < n; i++) {
+				summe = summe.add(x.get(i));
+				ziel.set(i, alpha.mul(x.get(i)).add(y.get(i)));
+
+				double a = x.getDouble(i), b = y.getDouble(i);
+				double refProdukt = rundeHalbAuf(f.getSizeMantisse(), a * b,
+						Math.fma(a, b, -a * b));
+				if (!(Math.abs(refProdukt) >= minNormal && Math.abs(refProdukt) <= max))
+					continue;
+				anzahl++;
+				double produkt = x.get(i).mul(y.get(i)).toDouble();
+				if (produkt != refProdukt) {
+					if (fehler++ < 3)
+						printErg(f + " mul(" + a + ", " + b + ")", "" + produkt,
+								"" + refProdukt);
+				}
+			}
+			anzahl++;
+			long sequentiell = Gleitpunktblas.summeSequentiell(x, 0, n);
+			if (sequentiell != summe.getBits()) {
+				if (fehler++ < 3)
+					printErg(f + " summeSequentiell", Long.toHexString(sequentiell),
+							Long.toHexString(summe.getBits()));
+			}
+			Gleitpunktvektor z = new Gleitpunktvektor(n, f);
+			z.add(y, z, 0, n);
+			Gleitpunktblas.axpy(alpha, x, z, 0, n);
+			for (int i = 0; i < n; i++) {
+				anzahl++;
+				if (z.getBits(i) != ziel.getBits(i)) {
+					if (fehler++ < 3)
+						printErg(f + " axpy an Stelle " + i, "" + z.get(i), ""
+								+ ziel.get(i));
+				}
+			}
+
+			/* Reduktionen mit verschiedener Koernung */
+			int[] koernungen = { Integer.MAX_VALUE, 1000, 1 };
+			String[] ergebnisse = new String[koernungen.length];
+			for (int k = 0; k < koernungen.length; k++)
+				ergebnisse[k] = Gleitpunktblas.dot(x, y, 0, n, koernungen[k])
+						+ " " + Gleitpunktblas.summe(x, 17, n - 5, koernungen[k])
+						+ " " + Gleitpunktblas.norm2(y, 0, n, koernungen[k]);
+			for (int k = 1; k < koernungen.length; k++) {
+				anzahl++;
+				if (!ergebnisse[k].equals(ergebnisse[0])) {
+					if (fehler++ < 3)
+						printErg(f + " dot, summe, norm2 mit Koernung "
+								+ koernungen[k], ergebnisse[k], ergebnisse[0]);
+				}
+			}
+
+			/* bis BLOCK Zahlen wird sequentiell summiert */
+			anzahl++;
+			if (Gleitpunktblas.summe(x, 0, Gleitpunktblas.BLOCK) != Gleitpunktblas
+					.summeSequentiell(x, 0, Gleitpunktblas.BLOCK)) {
+				if (fehler++ < 3)
+					printErg(f + " summe der ersten " + Gleitpunktblas.BLOCK,
+							"", "summeSequentiell");
+			}
+			printZusammenfassung(f, anzahl, fehler);
+		}
+	}
+
+	public static void test_spezialisiert() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test der spezialisierten Klasse Gleitpunkt_E4M8");
+
+		Gleitpunktformat f = Gleitpunkt_E4M8.FORMAT;
+		int bits = 1 + f.getSizeExponent() + f.getSizeMantisse();
+		double[] sonderfaelle = { 0.0, -0.0, Double.NaN,
+				Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1e-30, 1e30 };
+		Random random = new Random(88);
+		long fehler = 0;
+		long anzahl = 0;
+
+		/* alle normalisierten Zahlen a und Sonderfaelle mit zufaelligem b */
+		for (long a = 0; a < (1L << bits); a++) {
+			if (f.mantisse(a) != 0 && f.mantisse(a) < f.getFuehrendeEins()
+					&& f.exponent(a) != f.getMaxExponent())
+				continue;
+			double d = Gleitpunktzahl.zuDouble(f, a);
+			if (Double.doubleToRawLongBits(Gleitpunkt_E4M8.zuDouble(a)) != Double
+					.doubleToRawLongBits(d)) {
+				if (fehler++ < 3)
+					printErg("zuDouble(" + Long.toHexString(a) + ")", ""
+							+ Gleitpunkt_E4M8.zuDouble(a), "" + d);
+			}
+			double x = d * (1 + random.nextGaussian() / 256);
+			if (Gleitpunkt_E4M8.ausDouble(x) != Gleitpunktzahl.ausDouble(f, x)) {
+				if (fehler++ < 3)
+					printErg("ausDouble(" + x + ")", Long.toHexString(Gleitpunkt_E4M8
+							.ausDouble(x)), Long.toHexString(Gleitpunktzahl
+							.ausDouble(f, x)));
+			}
+			anzahl += 2;
+
+			for (int k = 0; k < 256; k++) {
+				double y = (k < sonderfaelle.length) ? sonderfaelle[k] : Math
+						.scalb(random.nextGaussian(), random.nextInt(24) - 12);
+				long b = Gleitpunktzahl.ausDouble(f, y);
+				long[] neu = { Gleitpunkt_E4M8.add(a, b),
+						Gleitpunkt_E4M8.sub(a, b), Gleitpunkt_E4M8.mul(a, b) };
+				long[] ref = { Gleitpunktzahl.add(f, a, b),
+						Gleitpunktzahl.sub(f, a, b), Gleitpunktzahl.mul(f, a, b) };
+				for (int j = 0; j < 3; j++) {
+					anzahl++;
+					if (neu[j] != ref[j] && fehler++ < 3)
+						printErg(new String[] { "add", "sub", "mul" }[j] + "("
+								+ Long.toHexString(a) + ", " + Long.toHexString(b)
+								+ ")", Long.toHexString(neu[j]), Long
+								.toHexString(ref[j]));
+				}
+			}
+		}
+		printZusammenfassung(f, anzahl, fehler);
+	}
+
+	public static void test_stapel() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von Gleitpunktstapel (gegen die Einzelkerne, "
+				+ (Gleitpunktstapel.verwendetVectorApi(Gleitpunkt_E4M8.FORMAT)
+						? "mit Vector API bis " + Gleitpunktstapel_simd.MAX_MANTISSE
+								+ " Mantissenbits)" : "ohne Vector API)"));
+
+		int[][] formate = { { 1, 1 }, { 2, 4 }, { 4, 8 }, { 8, 24 },
+				{ 11, 20 }, { 10, 53 }, { 11, 52 }, { 3, 60 } };
+		double[] sonderfaelle = { 0.0, -0.0, Double.NaN,
+				Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+				Double.MIN_VALUE, -Double.MAX_VALUE, 1e-300 };
+		Random random = new Random(2015);
+		int n = 100000;
+		for (int[] fm : formate) {
+			Gleitpunktformat f = new Gleitpunktformat(fm[0], fm[1]);
+			long bitmaske = (f.vorzeichenBit() << 1) - 1;
+			double[] werte = new double[n];
+			long[] a = new long[n];
+			long[] b = new long[n];
+			for (int i = 0; i < n; i++) {
+				werte[i] = (i % 16 == 0) ? sonderfaelle[(i / 16)
+						% sonderfaelle.length] : Math.scalb(random.nextGaussian(),
+						random.nextInt(2 * f.getExpOffset() + 8) - f.getExpOffset()
+								- 4);
+				a[i] = Gleitpunktzahl.ausDouble(f, Math.scalb(
+						random.nextGaussian(), random.nextInt(40) - 20));
+				/* auch nahe beieinander (Ausloeschung) und beliebige Bitmuster */
+				b[i] = (i % 3 == 0) ? a[i] + random.nextInt(5) - 2
+						: (i % 3 == 1) ? Gleitpunktzahl.ausDouble(f, werte[i])
+								: random.nextLong() & bitmaske;
+				if (i % 7 == 0)
+					a[i] = random.nextLong() & bitmaske;
+			}
+
+			long fehler = 0;
+			long[] c = new long[n];
+			double[] d = new double[n];
+			Gleitpunktstapel.ausDouble(f, werte, c, 0, n);
+			for (int i = 0; i < n; i++)
+				if (c[i] != Gleitpunktzahl.ausDouble(f, werte[i]) && fehler++ < 3)
+					printErg(f + " ausDouble(" + werte[i] + ")",
+							Long.toHexString(c[i]), Long.toHexString(Gleitpunktzahl
+									.ausDouble(f, werte[i])));
+			Gleitpunktstapel.zuDouble(f, b, d, 0, n);
+			for (int i = 0; i < n; i++) {
+				double ref = Gleitpunktzahl.zuDouble(f, b[i]);
+				if (Double.doubleToRawLongBits(d[i]) != Double
+						.doubleToRawLongBits(ref) && fehler++ < 3)
+					printErg(f + " zuDouble(" + Long.toHexString(b[i]) + ")", ""
+							+ d[i], "" + ref);
+			}
+			Gleitpunktstapel.add(f, a, b, c, 0, n);
+			for (int i = 0; i < n; i++)
+				if (c[i] != Gleitpunktzahl.add(f, a[i], b[i]) && fehler++ < 3)
+					printErg(f + " add(" + Long.toHexString(a[i]) + ", "
+							+ Long.toHexString(b[i]) + ")", Long.toHexString(c[i]),
+							Long.toHexString(Gleitpunktzahl.add(f, a[i], b[i])));
+			/* ziel darf ein Operand sein */
+			long[] a2 = a.clone();
+			Gleitpunktstapel.sub(f, a2, b, a2, 0, n);
+			for (int i = 0; i < n; i++)
+				if (a2[i] != Gleitpunktzahl.sub(f, a[i], b[i]) && fehler++ < 3)
+					printErg(f + " sub(" + Long.toHexString(a[i]) + ", "
+							+ Long.toHexString(b[i]) + ")", Long.toHexString(a2[i]),
+							Long.toHexString(Gleitpunktzahl.sub(f, a[i], b[i])));
+
+			/*
+			 * x - x ist fuer endliche x immer 0L, auch 0 - 0 (nicht das
+			 * Bitmuster -0)
+			 */
+			long[] x = { 0L, Gleitpunktzahl.ausDouble(f, 1.5),
+					Gleitpunktzahl.ausDouble(f, -0.3) };
+			long[] z = new long[x.length];
+			Gleitpunktstapel.sub(f, x, x, z, 0, x.length);
+			for (int i = 0; i < x.length; i++) {
+				if (f.exponent(x[i]) == f.getMaxExponent())
+					continue;
+				long r = Gleitpunktzahl.sub(f, x[i], x[i]);
+				if ((r != 0L || z[i] != 0L) && fehler++ < 3)
+					printErg(f + " sub(" + Long.toHexString(x[i]) + ", "
+							+ Long.toHexString(x[i]) + ")", Long.toHexString(r)
+							+ " / " + Long.toHexString(z[i]), "0");
+			}
+			printZusammenfassung(f, 4L * n + 2 * x.length, fehler);
+		}
+	}
+
+	public static void test_tabelle() {
+		System.out.println("-----------------------------------------");
+		System.out.println("Test von Gleitpunkttabelle (gegen die Einzelkerne)");
+
+		Random random = new Random(31);
+		for (int[] fm : new int[][] { { 2, 4 }, { 3, 5 }, { 4, 8 } }) {
+			Gleitpunktformat f = new Gleitpunktformat(fm[0], fm[1]);
+			int magic = (int) (3 * (long) f.getExpOffset()
+					* f.getFuehrendeEins() / 2);
+			Gleitpunkttabelle t = new Gleitpunkttabelle(f, magic);
+			int n = t.getAnzahl();
+			long fehler = 0;
+			long anzahl = 0;
+
+			for (int i = 0; i < n; i++) {
+				long a = t.bits(i);
+				anzahl += 2;
+				if (Double.doubleToRawLongBits(t.zuDouble(a)) != Double
+						.doubleToRawLongBits(Gleitpunktzahl.zuDouble(f, a))
+						&& fehler++ < 3)
+					printErg(f + " zuDouble(" + Long.toHexString(a) + ")", ""
+							+ t.zuDouble(a), "" + Gleitpunktzahl.zuDouble(f, a));
+				if (t.invSqrt(a) != kanonisch(f, FastMath.invSqrt(f, a, magic))
+						&& fehler++ < 3)
+					printErg(f + " invSqrt(" + Long.toHexString(a) + ")",
+							Long.toHexString(t.invSqrt(a)), Long.toHexString(FastMath
+									.invSqrt(f, a, magic)));
+			}
+
+			/* kleine Formate alle Paare, 4/8 zufaellig */
+			long paare = (n < 2048) ? (long) n * n : 2000000;
+			for (long k = 0; k < paare; k++) {
+				long a = t.bits((n < 2048) ? (int) (k / n) : random.nextInt(n));
+				long b = t.bits((n < 2048) ? (int) (k % n) : random.nextInt(n));
+				anzahl += 2;
+				if (t.add(a, b) != kanonisch(f, Gleitpunktzahl.add(f, a, b))
+						&& fehler++ < 3)
+					printErg(f + " add(" + Long.toHexString(a) + ", "
+							+ Long.toHexString(b) + ")", Long.toHexString(t.add(a, b)),
+							Long.toHexString(Gleitpunktzahl.add(f, a, b)));
+				if (t.sub(a, b) != kanonisch(f, Gleitpunktzahl.sub(f, a, b))
+						&& fehler++ < 3)
+					printErg(f + " sub(" + Long.toHexString(a) + ", "
+							+ Long.toHexString(b) + ")", Long.toHexString(t.sub(a, b)),
+							Long.toHexString(Gleitpunktzahl.sub(f, a, b)));
+			}
+			printZusammenfassung(f, anzahl, fehler);
+		}
+	}
+
+	/* bildet wie Gleitpunkttabelle alle NaN auf das NaN aus setNaN ab */
+	private static long kanonisch(Gleitpunktformat f, long b) {
+		if (f.exponent(b) == f.getMaxExponent() && f.mantisse(b) != 0)
+			return f.pack(false, f.getMaxExponent(), 1);
+		return b;
+	}
+
+	/*
+	 * Rundet den exakten Wert r + fehler (r ist der naechste double, fehler
+	 * der exakte Rest) auf 53 Stellen mit Aufrunden bei genau 1/2
+	 */
+	private static double rundeHalbAuf(double r, double fehler) {
+		if (fehler == 0)
+			return r;
+		double nachbar = Math.nextAfter(r, fehler > 0 ? Double.POSITIVE_INFINITY
+				: Double.NEGATIVE_INFINITY);
+		if (2 * fehler == nachbar - r && Math.abs(nachbar) > Math.abs(r))
+			return nachbar;
+		return r;
+	}
+
+	/*
+	 * Rundet den exakten Wert r + fehler wie rundeHalbAuf(r, fehler), aber auf
+	 * stellen <= 53 Stellen. Bei weniger als 53 Stellen muss r + fehler schon
+	 * auf 53 Stellen exakt sein (fehler == 0), z.B. ein Produkt zweier Zahlen
+	 * mit hoechstens 26 Stellen.
+	 */
+	private static double rundeHalbAuf(int stellen, double r, double fehler) {
+		if (stellen == 53 || r == 0)
+			return rundeHalbAuf(r, fehler);
+		int e = Math.getExponent(r) - (stellen - 1);
+		double q = Math.scalb(Math.abs(r), -e);
+		return Math.copySign(Math.scalb(Math.floor(q + 0.5), e), r);
+	}
+
+	/* bisherige Umsetzung von normalisiere ueber Math.pow */
+	private static long normalisiereAlt(Gleitpunktformat f,
+			boolean vorzeichen, int exponent, int mantisse) {
+		int sizeMantisse = f.getSizeMantisse();
+		int maxExponent = f.getMaxExponent();
+
+		if (exponent == maxExponent)
+			return f.pack(vorzeichen, exponent, mantisse);
+		if (mantisse == 0)
+			return 0L;
+
+		int n = Integer.numberOfLeadingZeros(mantisse) - (32 - sizeMantisse);
+		if (n < 0) {
+			mantisse *= Math.pow(2, n + 1);
+			if (Integer.lowestOneBit(mantisse) == 1)
+				mantisse++;
+			mantisse /= 2;
+			if (Integer.numberOfLeadingZeros(mantisse) < 32 - sizeMantisse) {
+				mantisse >>>= 1;
+				exponent++;
+			}
+		} else {
+			mantisse *= Math.pow(2, n);
+		}
+		exponent -= n;
+
+		if (exponent >= maxExponent)
+			return f.pack(vorzeichen, maxExponent, 0);
+		if (exponent < 0) {
+			if (exponent == -1)
+				return f.pack(vorzeichen, 0,
+						(int) Math.pow(2, sizeMantisse - 1));
+			else
+				return 0L;
+		}
+		return f.pack(vorzeichen, exponent, mantisse);
+	}
+
+	/* bisherige Umsetzung von FastMath.gleitpunktzahlToIEEE */
+	private static int gleitpunktzahlToIEEEAlt(Gleitpunktzahl x) {
+		int sizeExponent = x.getFormat().getSizeExponent();
+		int sizeMantisse = x.getFormat().getSizeMantisse();
+
+		int mask = (int) Math.pow(2, sizeMantisse - 1) - 1;
+		int result = (int) (x.mantisse & mask);
+		result |= (x.exponent << sizeMantisse - 1);
+		if (x.vorzeichen)
+			result |= (1 << sizeExponent + sizeMantisse - 1);
+		return result;
+	}
+
+	/* bisherige Umsetzung von FastMath.iEEEToGleitpunktzahl */
+	private static Gleitpunktzahl iEEEToGleitpunktzahlAlt(int b,
+			Gleitpunktformat format) {
+		Gleitpunktzahl g = new Gleitpunktzahl(format);
+		int sizeExponent = format.getSizeExponent();
+		int sizeMantisse = format.getSizeMantisse();
+
+		g.mantisse = 1;
+		g.mantisse <<= sizeMantisse - 1;
+		int mask = (int) Math.pow(2, sizeMantisse - 1) - 1;
+		g.mantisse |= (b & mask);
+
+		b >>= sizeMantisse - 1;
+		mask = (int) Math.pow(2, sizeExponent) - 1;
+		g.exponent = (b & mask);
+
+		b >>= sizeExponent;
+		g.vorzeichen = (b & 1) > 0;
+		return g;
+	}
+
+	private static void printZusammenfassung(Gleitpunktformat f, long anzahl,
+			long fehler) {
+		if (fehler == 0)
+			System.out.println("    " + f + ": Richtiges Ergebnis (" + anzahl
+					+ " Faelle)");
+		else
+			System.out.println("    " + f + ": " + fehler + " Fehler in "
+					+ anzahl + " Faellen");
+	}
+
+	private static void printErg(String aufruf, String erg, String checkref) {
+		System.out.println("    Fehler!\n      Es wurde gerechnet:            "
+				+ aufruf + "\n      Ihr Ergebnis lautet:           " + erg
+				+ "\n      Das Korrekte Ergebnis lautet:  " + checkref + "\n");
+	}
+}
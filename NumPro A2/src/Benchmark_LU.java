@@ -0,0 +1,114 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Vergleicht die Laufzeit von Gauss.solve mit LUDecomposition, spaltenweise
+ * (blockgroesse 1) und blockweise, sequentiell und mit Fork-Join-Tasks auf
+ * allen Kernen, fuer zufaellige n x n Matrizen. Fuer eine symmetrische,
+ * positiv definite Matrix kommen CholeskyDecomposition und LDLDecomposition
+ * dazu.
+ *
+ * Aufruf: java Benchmark_LU [n ...] (Standard: 500 1000 2000 5000).
+ */
+public class Benchmark_LU {
+
+	public static void main(String[] args) {
+		int[] groessen = { 500, 1000, 2000, 5000 };
+		if (args.length > 0) {
+			groessen = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+				groessen[i] = Integer.parseInt(args[i]);
+		}
+
+		/* zum Aufwaermen des JIT */
+		messen(200, false);
+		for (int n : groessen)
+			messen(n, true);
+	}
+
+	private static void messen(int n, boolean ausgeben) {
+		Random random = new Random(n);
+		double[][] A = new double[n][n];
+		double[] b = new double[n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++)
+				A[i][j] = random.nextDouble() - 0.5;
+			b[i] = random.nextDouble() - 0.5;
+		}
+		/* Gleitkommaoperationen der Zerlegung */
+		double flop = 2.0 / 3.0 * n * (double) n * n;
+
+		long t = System.nanoTime();
+		double[] x = Gauss.solve(A, b);
+		long gauss = System.nanoTime() - t;
+
+		t = System.nanoTime();
+		double[] y = new LUDecomposition(A, 1, Integer.MAX_VALUE).solve(b);
+		long spaltenweise = System.nanoTime() - t;
+
+		t = System.nanoTime();
+		new LUDecomposition(A, LUDecomposition.BLOCKGROESSE, Integer.MAX_VALUE)
+				.solve(b);
+		long sequentiell = System.nanoTime() - t;
+
+		t = System.nanoTime();
+		double[] z = new LUDecomposition(A).solve(b);
+		long blockweise = System.nanoTime() - t;
+
+		/* symmetrisch und diagonaldominant, also positiv definit */
+		double[][] S = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < i; j++)
+				S[i][j] = S[j][i] = A[i][j];
+			S[i][i] = n;
+		}
+		t = System.nanoTime();
+		double[] u = new LUDecomposition(S).solve(b);
+		long luSymmetrisch = System.nanoTime() - t;
+
+		t = System.nanoTime();
+		double[] v = new CholeskyDecomposition(S).solve(b);
+		long cholesky = System.nanoTime() - t;
+
+		t = System.nanoTime();
+		double[] w = new LDLDecomposition(S).solve(b);
+		long ldl = System.nanoTime() - t;
+
+		if (!ausgeben)
+			return;
+		System.out.println("n = " + n + " (Residuum "
+				+ String.format("%.1e", residuum(A, z, b)) + ", Abweichung "
+				+ String.format("%.1e", Math.max(abstand(x, z), abstand(y, z)))
+				+ ")");
+		zeile("Gauss.solve", gauss, flop);
+		zeile("LUDecomposition, spaltenweise", spaltenweise, flop);
+		zeile("LUDecomposition, Bloecke " + LUDecomposition.BLOCKGROESSE,
+				sequentiell, flop);
+		zeile("  parallel, " + ForkJoinPool.getCommonPoolParallelism()
+				+ " Threads", blockweise, flop);
+		System.out.println("  symmetrisch positiv definit (Residuum "
+				+ String.format("%.1e", residuum(S, v, b)) + ", Abweichung "
+				+ String.format("%.1e", Math.max(abstand(u, v), abstand(u, w)))
+				+ ")");
+		zeile("  LUDecomposition", luSymmetrisch, flop);
+		zeile("  CholeskyDecomposition", cholesky, flop / 2);
+		zeile("  LDLDecomposition", ldl, flop / 2);
+	}
+
+	private static void zeile(String name, long ns, double flop) {
+		System.out.printf("  %-36s %10.1f ms %8.2f GFLOP/s%n", name, ns / 1e6,
+				flop / ns);
+	}
+
+	private static double residuum(double[][] A, double[] x, double[] b) {
+		double[] r = Gauss.matrixVectorMult(A, x);
+		return abstand(r, b);
+	}
+
+	private static double abstand(double[] v, double[] w) {
+		double max = 0;
+		for (int i = 0; i < v.length; i++)
+			max = Math.max(max, Math.abs(v[i] - w[i]));
+		return max;
+	}
+}
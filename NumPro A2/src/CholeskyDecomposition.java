@@ -0,0 +1,215 @@
+/**
+ * Cholesky-Zerlegung A = L*L^T einer symmetrischen, positiv definiten n x n
+ * Matrix A. Es wird nur das untere Dreieck gespeichert, gepackt und
+ * zeilenweise: das Element (i, j) mit j <= i steht an der Stelle
+ * i*(i+1)/2 + j, zusammen n*(n+1)/2 Werte statt n*n wie bei
+ * LUDecomposition. Die Zerlegung braucht etwa n^3/3 Rechenschritte, halb
+ * so viele wie die LR-Zerlegung, und keine Pivotsuche.
+ *
+ * Zerlegt wird zeilenweise: L(i, j) ist das Skalarprodukt der Zeilen i und j
+ * von L bis zur Spalte j, beide liegen hintereinander im Speicher. Je BLOCK
+ * Zeilen werden zusammen berechnet, damit jede fertige Zeile j nur einmal
+ * pro Block und nicht einmal pro Zeile durch den Cache laeuft (siehe
+ * spaltenLinks); die Rechenschritte fuer jedes Element bleiben dieselben.
+ * Ist ein Diagonalelement nicht positiv, ist A nicht positiv definit; die
+ * Zerlegung bricht dann ab und isPositiveDefinite liefert false (siehe
+ * LDLDecomposition und Gauss.solveSym).
+ *
+ * Das gepackte Dreieck muss in ein Feld passen, d.h. n*(n+1)/2 <=
+ * Integer.MAX_VALUE (n <= 65535).
+ */
+public class CholeskyDecomposition {
+
+	/* Anzahl der Zeilen, die zusammen berechnet werden */
+	static final int BLOCK = 32;
+
+	private final int n;
+
+	/* L gepackt, zeilenweise */
+	private final double[] l;
+
+	private boolean positivDefinit = true;
+
+	/**
+	 * Zerlegt die symmetrische Matrix A, von der nur das untere Dreieck
+	 * gelesen wird. A wird dabei nicht veraendert.
+	 * PARAMETER:
+	 * A: Eine symmetrische Matrix der Groesse n x n
+	 */
+	public CholeskyDecomposition(double[][] A) {
+		this(A.length, unteresDreieck(A));
+	}
+
+	/**
+	 * Zerlegt die Matrix, deren unteres Dreieck gepackt in a steht. Die
+	 * Zerlegung wird ohne Kopie in a gespeichert, d.h. a wird ueberschrieben.
+	 */
+	public CholeskyDecomposition(int n, double[] a) {
+		if (a.length != laenge(n))
+			throw new IllegalArgumentException("Feld der Laenge " + a.length
+					+ " ist kein gepacktes Dreieck einer " + n + " x " + n
+					+ " Matrix");
+		this.n = n;
+		this.l = a;
+
+		for (int ib = 0; ib < n; ib += BLOCK) {
+			int ende = Math.min(ib + BLOCK, n);
+			spaltenLinks(a, ib, ende, true);
+			// Dreieck im Block
+			for (int i = ib; i < ende; i++) {
+				int zi = zeile(i);
+				for (int j = ib; j < i; j++) {
+					int zj = zeile(j);
+					a[zi + j] = (a[zi + j] - skalarprodukt(a, zi, zj, j))
+							/ a[zj + j];
+				}
+				double d = a[zi + i] - skalarprodukt(a, zi, zi, i);
+				if (!(d > 0)) {
+					positivDefinit = false;
+					return;
+				}
+				a[zi + i] = Math.sqrt(d);
+			}
+		}
+	}
+
+	/*
+	 * berechnet fuer die Zeilen [ib, ende) die Spalten links vom Block:
+	 * a(i, j) = (a(i, j) - Zeile i * Zeile j) / teiler, mit teiler = L(j, j)
+	 * bei Cholesky und 1 bei LDL^T. Jede fertige Zeile j wird fuer je vier
+	 * Zeilen i auf einmal gelesen; die vier Summen sind unabhaengig und
+	 * werden in derselben Reihenfolge gebildet wie in skalarprodukt.
+	 */
+	static void spaltenLinks(double[] a, int ib, int ende, boolean cholesky) {
+		for (int j = 0; j < ib; j++) {
+			int zj = zeile(j);
+			double teiler = cholesky ? a[zj + j] : 1;
+			int i = ib;
+			for (; i + 3 < ende; i += 4) {
+				int z0 = zeile(i);
+				int z1 = z0 + i + 1, z2 = z1 + i + 2, z3 = z2 + i + 3;
+				double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+				for (int k = 0; k < j; k++) {
+					double ljk = a[zj + k];
+					s0 += a[z0 + k] * ljk;
+					s1 += a[z1 + k] * ljk;
+					s2 += a[z2 + k] * ljk;
+					s3 += a[z3 + k] * ljk;
+				}
+				a[z0 + j] = (a[z0 + j] - s0) / teiler;
+				a[z1 + j] = (a[z1 + j] - s1) / teiler;
+				a[z2 + j] = (a[z2 + j] - s2) / teiler;
+				a[z3 + j] = (a[z3 + j] - s3) / teiler;
+			}
+			for (; i < ende; i++) {
+				int zi = zeile(i);
+				a[zi + j] = (a[zi + j] - skalarprodukt(a, zi, zj, j)) / teiler;
+			}
+		}
+	}
+
+	/* Liefert die Summe a[i+k]*a[j+k] fuer k aus [0, laenge) */
+	static double skalarprodukt(double[] a, int i, int j, int laenge) {
+		double summe = 0;
+		for (int k = 0; k < laenge; k++)
+			summe += a[i + k] * a[j + k];
+		return summe;
+	}
+
+	/** Liefert die Groesse n der Matrix */
+	public int getN() {
+		return n;
+	}
+
+	/**
+	 * Liefert false, wenn die Zerlegung an einem nicht positiven
+	 * Diagonalelement abgebrochen ist, d.h. A nicht positiv definit ist
+	 */
+	public boolean isPositiveDefinite() {
+		return positivDefinit;
+	}
+
+	/** Liefert die Determinante von A */
+	public double determinant() {
+		pruefePositivDefinit();
+		double det = 1;
+		for (int i = 0; i < n; i++) {
+			double d = l[zeile(i) + i];
+			det *= d * d;
+		}
+		return det;
+	}
+
+	/**
+	 * Liefert die Loesung x von A*x = b durch Vorwaerts- und
+	 * Rueckwaertssubstitution. b wird nicht veraendert.
+	 * PARAMETER:
+	 * b: Ein Vektor der Laenge n
+	 */
+	public double[] solve(double[] b) {
+		if (b.length != n)
+			throw new IllegalArgumentException("Vektor der Laenge " + b.length
+					+ " statt " + n);
+		pruefePositivDefinit();
+
+		double[] x = b.clone();
+		// L*y = b
+		for (int i = 0; i < n; i++) {
+			int zi = zeile(i);
+			double summe = x[i];
+			for (int j = 0; j < i; j++)
+				summe -= l[zi + j] * x[j];
+			x[i] = summe / l[zi + i];
+		}
+		// L^T*x = y, spaltenweise, damit die Zeilen von L am Stueck laufen
+		for (int i = n - 1; i >= 0; i--) {
+			int zi = zeile(i);
+			x[i] /= l[zi + i];
+			double xi = x[i];
+			for (int j = 0; j < i; j++)
+				x[j] -= l[zi + j] * xi;
+		}
+		return x;
+	}
+
+	private void pruefePositivDefinit() {
+		if (!positivDefinit)
+			throw new ArithmeticException("Matrix ist nicht positiv definit");
+	}
+
+	/*
+	 * Anzahl der Elemente des gepackten unteren Dreiecks einer n x n Matrix;
+	 * passt sie nicht in ein Feld, gibt es eine IllegalArgumentException
+	 */
+	static int laenge(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException("Negative Groesse " + n);
+		long laenge = (long) n * (n + 1) / 2;
+		if (laenge > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Gepacktes Dreieck einer " + n
+					+ " x " + n + " Matrix hat " + laenge
+					+ " Elemente, zu viele fuer ein Feld");
+		return (int) laenge;
+	}
+
+	/*
+	 * Liefert den Index i*(i+1)/2 des Anfangs von Zeile i im gepackten
+	 * Dreieck; i*(i+1) wird in long berechnet, da es schon fuer i >= 46341
+	 * nicht mehr in ein int passt
+	 */
+	static int zeile(int i) {
+		return (int) ((long) i * (i + 1) / 2);
+	}
+
+	/* kopiert das untere Dreieck der quadratischen Matrix A gepackt */
+	static double[] unteresDreieck(double[][] A) {
+		int n = A.length;
+		double[] a = new double[laenge(n)];
+		for (int i = 0; i < n; i++) {
+			if (A[i].length != n)
+				throw new IllegalArgumentException("Matrix ist nicht quadratisch");
+			System.arraycopy(A[i], 0, a, zeile(i), i + 1);
+		}
+		return a;
+	}
+}
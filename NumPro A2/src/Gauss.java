@@ -10,18 +10,25 @@ public class Gauss {
 	 * b: Ein Vektor der Laenge n
 	 */
 	public static double[] backSubst(double[][] R, double[] b) {
+		return backSubst(R, b, null);
+	}
+
+	/**
+	 * wie backSubst(R, b), meldet die Rechenschritte aber an beobachter, z.B.
+	 * new GaussAusgabe(System.out). Mit null wird nichts gemeldet.
+	 */
+	public static double[] backSubst(double[][] R, double[] b,
+			GaussBeobachter beobachter) {
 		/*formula (basically): Xi = [Bi - Sum(j=1, to n, of Aij*Xj)] / Aii*/
 		int n = b.length;
 		double[] x = new double[n];
 		for(int i = n-1; i > -1; i--) {
 			x[i] = b[i];
-			System.out.print("do X"+i+" = ( B"+i+" ");
 			for(int j = i+1; j < n; j++) {
 				x[i] -= R[i][j] * x[j];
-				System.out.print("- A"+i+j+"*X"+j+" ");
 			}
 			x[i] /= R[i][i];
-			System.out.print(")/ A"+i+i+"\n");
+			if(beobachter != null) { beobachter.substituiert(i, n, x); }
 		}
 		return x;
 	}
@@ -32,13 +39,33 @@ public class Gauss {
 	 * PARAMETER: A:
 	 * Eine regulaere Matrix der Groesse n x n 
 	 * b: Ein Vektor der Laenge n
+	 * 
+	 * Fuer mehrere rechte Seiten mit derselben Matrix ist LUDecomposition
+	 * guenstiger, da A nur einmal zerlegt wird.
 	 */
 	public static double[] solve(double[][] A, double[] b) {
-		//declare vector/matrix length and matrix needed for solution, etc
+		return solve(A, b, null);
+	}
+
+	/**
+	 * wie solve(A, b), meldet die Rechenschritte aber an beobachter. Mit null
+	 * wird nichts gemeldet.
+	 */
+	public static double[] solve(double[][] A, double[] b,
+			GaussBeobachter beobachter) {
+		//declare vector/matrix length, etc
 		int n = b.length;
 		int j = 0;
 		double alpha = 0.0;
-		double[][] L = new double[n][n];
+		double l = 0.0;
+		
+		//work on copies, since A and b must not be changed
+		double[][] original = A;
+		A = new double[n][];
+		for(int i = 0; i < n; i++) {
+			A[i] = original[i].clone();
+		}
+		b = b.clone();
 		
 		for(int k = 0; k < n-1; k++) {
 			alpha = Math.abs(A[k][k]); j = k;
@@ -47,24 +74,74 @@ public class Gauss {
 					alpha = Math.abs(A[s][k]); j=s;
 				}
 			}
+			if(beobachter != null) { beobachter.pivotGewaehlt(k, j, alpha); }
 			
 			//# Pivotelement ist a(j,k) und Pivotzeile ist j
 			for(int i = k; i < n; i++) {
 				alpha = A[k][i]; A[k][i] = A[j][i]; A[j][i] = alpha;
 			}
 			alpha = b[j]; b[j] = b[k]; b[k] = alpha;
+			if(beobachter != null && j != k) { beobachter.zeilenVertauscht(k, j); }
 			
 			//# Eliminationsschritt
 			for(int s = k+1; s < n; s++) {
-				L[s][k] = A[s][k] / A[k][k];
-				b[s] = b[s] - L[s][k]*b[k];
+				l = A[s][k] / A[k][k];
+				b[s] = b[s] - l*b[k];
 				for(int i = k; i < n; i++) {
-					A[s][i] = A[s][i] - L[s][k]*A[k][i];
+					A[s][i] = A[s][i] - l*A[k][i];
 				}
 			}
 		}
 		
-		return backSubst(A, b);
+		return backSubst(A, b, beobachter);
+	}
+
+	/**
+	 * Diese Methode ermittelt die Loesung x des LGS A*x=b fuer eine
+	 * symmetrische Matrix A mit halb so viel Aufwand und Speicher wie solve.
+	 * A und b werden nicht veraendert.
+	 * 
+	 * Zuerst wird die Cholesky-Zerlegung versucht (A positiv definit, z.B.
+	 * Normalengleichungen), dann L*D*L^T (A indefinit). Bricht beides ab oder
+	 * ist das Residuum A*x-b zu gross (z.B. weil A doch nicht symmetrisch
+	 * ist), wird mit LUDecomposition geloest.
+	 * PARAMETER:
+	 * A: Eine regulaere, symmetrische Matrix der Groesse n x n
+	 * b: Ein Vektor der Laenge n
+	 */
+	public static double[] solveSym(double[][] A, double[] b) {
+		CholeskyDecomposition cholesky = new CholeskyDecomposition(A);
+		if(cholesky.isPositiveDefinite()) {
+			double[] x = cholesky.solve(b);
+			if(residuumKlein(A, x, b)) { return x; }
+		} else {
+			LDLDecomposition ldl = new LDLDecomposition(A);
+			if(ldl.isStable()) {
+				double[] x = ldl.solve(b);
+				if(residuumKlein(A, x, b)) { return x; }
+			}
+		}
+		return new LUDecomposition(A).solve(b);
+	}
+
+	/*
+	 * true, wenn |A*x-b| <= sqrt(eps) * (|A|*|x| + |b|) in der Maximumnorm,
+	 * d.h. x die Loesung eines nahen Systems ist
+	 */
+	private static boolean residuumKlein(double[][] A, double[] x, double[] b) {
+		double r = 0, normA = 0, normX = 0, normB = 0;
+		for(int i = 0; i < x.length; i++) {
+			double summe = -b[i], zeile = 0;
+			for(int j = 0; j < x.length; j++) {
+				summe += A[i][j] * x[j];
+				zeile += Math.abs(A[i][j]);
+			}
+			r = Math.max(r, Math.abs(summe));
+			normA = Math.max(normA, zeile);
+			normX = Math.max(normX, Math.abs(x[i]));
+			normB = Math.max(normB, Math.abs(b[i]));
+		}
+		return r <= Math.sqrt(Math.ulp(1.0)) * (normA * normX + normB);
 	}
 
 	/**
@@ -85,27 +162,36 @@ public class Gauss {
 	 * A: Eine singulaere Matrix der Groesse n x n 
 	 */
 	public static double[] solveSing(double[][] A) {
+		return solveSing(A, null);
+	}
+
+	/**
+	 * wie solveSing(A), meldet die Rechenschritte aber an beobachter. Mit null
+	 * wird nichts gemeldet.
+	 */
+	public static double[] solveSing(double[][] A, GaussBeobachter beobachter) {
 		//declare matrix/vector length, vectors/matrix needed for solving, etc
 		int n = A.length;
 		int j = 0;
 		double alpha = 0.0;
 		double[] p = new double[n];
-		double[][] L = new double[n][n];
 		double pseudoZero = 1E-10;
-		int Tn = 0;
+		//size of T, i.e. the column where elimination stopped (n if A is invertible)
+		int Tn = n;
+		
+		//work on a copy, since A must not be changed
+		double[][] original = A;
+		A = new double[n][];
+		for(int i = 0; i < n; i++) {
+			A[i] = original[i].clone();
+		}
 		
 		/*Modified Gauss Elimination*/
-		System.out.print("Mod. Gauss Elim. ...\n");
-		for(int k = 0; k < n-1; k++) {
+		if(beobachter != null) { beobachter.eliminationBeginnt(A); }
+		//the last column is checked as well, otherwise rank n-1 is not found
+		for(int k = 0; k < n; k++) {
 			
-			System.out.print("\nGauss Matrix at step " + k + "\n");
-			for(int x = 0; x < n; x++) {
-				System.out.print(x + "{ ");
-				for(int y = 0; y < n; y++) {
-					System.out.print(A[x][y] + ", ");
-				}
-				System.out.print("}\n");
-			}
+			if(beobachter != null) { beobachter.schritt(k, A); }
 			
 			alpha = Math.abs(A[k][k]); j = k;
 			for(int s = k+1; s < n; s++) {
@@ -115,80 +201,55 @@ public class Gauss {
 			}
 			
 			//check for whether the only "found" pivot element is effectively 0, if so, exit the loop
-			if(alpha < pseudoZero) { System.out.print("breaking gauss elim\n"); pseudoZero = 1.0; break; }
+			if(alpha < pseudoZero) {
+				if(beobachter != null) { beobachter.eliminationAbgebrochen(k); }
+				Tn = k; break;
+			}
+			if(beobachter != null) { beobachter.pivotGewaehlt(k, j, alpha); }
 			
 			//# Pivotelement ist a(j,k) und Pivotzeile ist j
 			for(int i = k; i < n; i++) {
 				alpha = A[k][i]; A[k][i] = A[j][i]; A[j][i] = alpha;
 			}
+			if(beobachter != null && j != k) { beobachter.zeilenVertauscht(k, j); }
 
 			//# Eliminationsschritt
 			for(int s = k+1; s < n; s++) {
-				L[s][k] = A[s][k] / A[k][k];
+				double l = A[s][k] / A[k][k];
 				for(int i = k; i < n; i++) {
-					A[s][i] = A[s][i] - L[s][k]*A[k][i];
+					A[s][i] = A[s][i] - l*A[k][i];
 				}
 			}
 		}
 
-		System.out.print("\nGauss Matrix after elim\n");
-		for(int x = 0; x < n; x++) {
-			System.out.print(x + "{ ");
-			for(int y = 0; y < n; y++) {
-				System.out.print(A[x][y] + ", ");
-			}
-			System.out.print("}\n");
-		}
+		if(beobachter != null) { beobachter.eliminationBeendet(A); }
 		
-		//Matrix is invertible, i.e. no pivot element <1E-10 was found, 
-		//so we never set pseudoZero to 1.0, so we return a vector with all zeroes
-		if(pseudoZero < 1.0) { return new double[n]; }
-		//otherwise we set pseudoZero correctly again and move on
-		else { pseudoZero = 1E-10; }
-		
-		System.out.print("Determining T matrix size; n = " + n);
-		//find out where T ends
-		for(int i = 0; i < n; i++) {
-			//since the matrix should be perfectly diagonal by now, 
-			//our T matrix should end at the first element Aii that is effectively zero
-			if(A[i][i] > pseudoZero) { 
-				Tn = i; 
-			} else {
-				break;
-			}
-		}
-		System.out.print("; Tn = " + Tn + "\n");
+		//Matrix is invertible, i.e. no pivot element <1E-10 was found,
+		//so we return a vector with all zeroes
+		if(Tn == n) { return new double[n]; }
 		
 		//declare the T and v matrix/vector for doing Tx = -v
 		double[][] T = new double[Tn][Tn];
 		double[] v = new double[Tn];
 		
-		System.out.print("\nCreating T matrix\n");
 		//copy values from A into T and v
 		for(int x = 0; x < Tn; x++) {
-			System.out.print(x + "{ ");
 			for(int y = 0; y < Tn; y++) {
 				T[x][y] = A[x][y];
-				System.out.print(T[x][y] + ", ");
 			}
 			v[x] = -1 * A[x][Tn];
-			System.out.print(" } v" +x+ "{" + v[x] + "}\n");
 		}
+		if(beobachter != null) { beobachter.blockT(n, T, v); }
 		
-		System.out.print("\nDo Tx = -v:\n");
 		//calculate solution x for Tx = -v (write it straight into v again since we wont need that anymore afterwards
-		v = backSubst(T, v);
+		v = backSubst(T, v, beobachter);
 		//copy values of said x (vector v) into p, then put 1 after it, as described in task description
 		for(int i = 0; i < Tn; i++) {
 			p[i] = v[i];
 		}
 		p[Tn] = 1;
 		
-		//just visual output of p solution vector
-		System.out.print("p:{ ");
-		for(int i = 0; i < n; i++) {
-			System.out.print(p[i] + ", ");
-		} System.out.print("}\n");
+		if(beobachter != null) { beobachter.loesung(p); }
 		
 		return p;
 	}
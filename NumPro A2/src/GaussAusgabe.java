@@ -0,0 +1,80 @@
+import java.io.PrintStream;
+
+/**
+ * Gibt die Rechnung von Gauss so aus, wie Gauss sie frueher selbst auf
+ * System.out geschrieben hat: die Formeln der Rueckwaertssubstitution, die
+ * Matrix nach jedem Schritt von solveSing, den Block T und die Loesung p.
+ *
+ * Einschalten z.B. mit Gauss.solveSing(A, new GaussAusgabe(System.out)).
+ * Vorsicht: fuer grosse Matrizen ist die Ausgabe O(n^2) bzw. O(n^3) Zeichen
+ * lang.
+ */
+public class GaussAusgabe implements GaussBeobachter {
+
+	private final PrintStream out;
+
+	public GaussAusgabe(PrintStream out) {
+		this.out = out;
+	}
+
+	public void eliminationBeginnt(double[][] A) {
+		out.print("Mod. Gauss Elim. ...\n");
+	}
+
+	public void schritt(int k, double[][] A) {
+		out.print("\nGauss Matrix at step " + k + "\n");
+		matrix(A);
+	}
+
+	public void eliminationAbgebrochen(int k) {
+		out.print("breaking gauss elim\n");
+	}
+
+	public void eliminationBeendet(double[][] A) {
+		out.print("\nGauss Matrix after elim\n");
+		matrix(A);
+	}
+
+	public void blockT(int n, double[][] T, double[] v) {
+		int Tn = T.length;
+		out.print("Determining T matrix size; n = " + n);
+		out.print("; Tn = " + Tn + "\n");
+		out.print("\nCreating T matrix\n");
+		for (int x = 0; x < Tn; x++) {
+			out.print(x + "{ ");
+			for (int y = 0; y < Tn; y++) {
+				out.print(T[x][y] + ", ");
+			}
+			out.print(" } v" + x + "{" + v[x] + "}\n");
+		}
+		out.print("\nDo Tx = -v:\n");
+	}
+
+	public void substituiert(int i, int n, double[] x) {
+		StringBuilder zeile = new StringBuilder();
+		zeile.append("do X" + i + " = ( B" + i + " ");
+		for (int j = i + 1; j < n; j++) {
+			zeile.append("- A" + i + j + "*X" + j + " ");
+		}
+		zeile.append(")/ A" + i + i + "\n");
+		out.print(zeile);
+	}
+
+	public void loesung(double[] p) {
+		out.print("p:{ ");
+		for (int i = 0; i < p.length; i++) {
+			out.print(p[i] + ", ");
+		}
+		out.print("}\n");
+	}
+
+	private void matrix(double[][] A) {
+		for (int x = 0; x < A.length; x++) {
+			out.print(x + "{ ");
+			for (int y = 0; y < A[x].length; y++) {
+				out.print(A[x][y] + ", ");
+			}
+			out.print("}\n");
+		}
+	}
+}
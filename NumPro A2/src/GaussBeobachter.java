@@ -0,0 +1,60 @@
+/**
+ * Beobachter fuer die einzelnen Schritte von Gauss.solve, Gauss.solveSing und
+ * Gauss.backSubst, z.B. zur Ausgabe der Rechnung (siehe GaussAusgabe). Er
+ * wird diesen Methoden als letzter Parameter uebergeben; ohne Beobachter
+ * (oder mit null) rechnet Gauss ohne jede Ausgabe.
+ *
+ * Alle Methoden tun standardmaessig nichts, so dass nur die benoetigten
+ * ueberschrieben werden muessen. Uebergebene Felder sind die Arbeitskopien
+ * von Gauss und duerfen nicht veraendert werden.
+ */
+public interface GaussBeobachter {
+
+	/** solveSing beginnt mit der Elimination der Matrix A */
+	default void eliminationBeginnt(double[][] A) {
+	}
+
+	/** Zustand der Matrix A vor dem Eliminationsschritt k (solveSing) */
+	default void schritt(int k, double[][] A) {
+	}
+
+	/**
+	 * In Spalte k wurde Zeile j mit dem betragsgroessten Element alpha als
+	 * Pivotzeile gewaehlt
+	 */
+	default void pivotGewaehlt(int k, int j, double alpha) {
+	}
+
+	/** Die Zeilen k und j wurden vertauscht */
+	default void zeilenVertauscht(int k, int j) {
+	}
+
+	/**
+	 * Alle Pivotelemente in Spalte k sind numerisch 0, die Elimination in
+	 * solveSing bricht ab
+	 */
+	default void eliminationAbgebrochen(int k) {
+	}
+
+	/** Die Elimination in solveSing ist beendet, A ist die Ergebnismatrix */
+	default void eliminationBeendet(double[][] A) {
+	}
+
+	/**
+	 * solveSing hat aus der n x n Matrix den Block T (Tn x Tn) und die
+	 * rechte Seite v fuer Tx = v herausgezogen
+	 */
+	default void blockT(int n, double[][] T, double[] v) {
+	}
+
+	/**
+	 * backSubst hat x[i] aus Zeile i einer n x n Dreiecksmatrix berechnet,
+	 * x[i..n) sind bekannt
+	 */
+	default void substituiert(int i, int n, double[] x) {
+	}
+
+	/** solveSing liefert die Loesung p */
+	default void loesung(double[] p) {
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * Zerlegung A = L*D*L^T einer symmetrischen n x n Matrix A, die auch
+ * indefinit sein darf. L hat Einsen auf der Diagonalen, D ist diagonal. L
+ * und D liegen gepackt im unteren Dreieck wie bei CholeskyDecomposition:
+ * das Element (i, j) mit j < i an der Stelle i*(i+1)/2 + j, D(i, i) statt
+ * der Eins auf der Diagonalen. Es gibt keine Wurzeln und wie bei Cholesky
+ * etwa n^3/3 Rechenschritte.
+ *
+ * Zerlegt wird zeilenweise in Bloecken wie bei CholeskyDecomposition, ohne
+ * Pivotsuche, damit die Symmetrie erhalten bleibt. In Zeile i steht
+ * waehrend der Rechnung zunaechst L(i, j)*D(j, j), erst mit D(i, i) wird
+ * durch D(j, j) geteilt. Ohne Pivotsuche kann ein Element von D (fast) 0
+ * werden, obwohl A regulaer ist (z.B. bei einer 0 auf der Diagonalen); dann
+ * bricht die Zerlegung ab und isStable liefert false. Gauss.solveSym prueft
+ * zusaetzlich das Residuum und rechnet in diesen Faellen mit
+ * LUDecomposition weiter.
+ */
+public class LDLDecomposition {
+
+	private final int n;
+
+	/* L unterhalb und D auf der Diagonalen, gepackt, zeilenweise */
+	private final double[] ld;
+
+	private boolean stabil = true;
+
+	/**
+	 * Zerlegt die symmetrische Matrix A, von der nur das untere Dreieck
+	 * gelesen wird. A wird dabei nicht veraendert.
+	 * PARAMETER:
+	 * A: Eine symmetrische Matrix der Groesse n x n
+	 */
+	public LDLDecomposition(double[][] A) {
+		this(A.length, CholeskyDecomposition.unteresDreieck(A));
+	}
+
+	/**
+	 * Zerlegt die Matrix, deren unteres Dreieck gepackt in a steht (siehe
+	 * CholeskyDecomposition). Die Zerlegung wird ohne Kopie in a
+	 * gespeichert, d.h. a wird ueberschrieben.
+	 */
+	public LDLDecomposition(int n, double[] a) {
+		if (a.length != CholeskyDecomposition.laenge(n))
+			throw new IllegalArgumentException("Feld der Laenge " + a.length
+					+ " ist kein gepacktes Dreieck einer " + n + " x " + n
+					+ " Matrix");
+		this.n = n;
+		this.ld = a;
+
+		/* D(i, i) gilt als 0, wenn es nicht groesser als grenze ist */
+		double max = 0;
+		for (double v : a)
+			max = Math.max(max, Math.abs(v));
+		double grenze = Math.ulp(1.0) * n * max;
+
+		for (int ib = 0; ib < n; ib += CholeskyDecomposition.BLOCK) {
+			int ende = Math.min(ib + CholeskyDecomposition.BLOCK, n);
+			// L(i, j)*D(j, j) links vom Block ...
+			CholeskyDecomposition.spaltenLinks(a, ib, ende, false);
+			for (int i = ib; i < ende; i++) {
+				int zi = CholeskyDecomposition.zeile(i);
+				// ... und im Block
+				for (int j = ib; j < i; j++) {
+					int zj = CholeskyDecomposition.zeile(j);
+					a[zi + j] -= CholeskyDecomposition.skalarprodukt(a, zi, zj, j);
+				}
+				// dann D(i, i) und L(i, j)
+				double d = a[zi + i];
+				for (int j = 0; j < i; j++) {
+					double u = a[zi + j];
+					double lij = u / a[CholeskyDecomposition.zeile(j) + j];
+					d -= u * lij;
+					a[zi + j] = lij;
+				}
+				if (!(Math.abs(d) > grenze) || Double.isInfinite(d)) {
+					stabil = false;
+					return;
+				}
+				a[zi + i] = d;
+			}
+		}
+	}
+
+	/** Liefert die Groesse n der Matrix */
+	public int getN() {
+		return n;
+	}
+
+	/**
+	 * Liefert false, wenn die Zerlegung ohne Pivotsuche an einem Element von
+	 * D abgebrochen ist, das numerisch 0 war
+	 */
+	public boolean isStable() {
+		return stabil;
+	}
+
+	/**
+	 * Liefert true, wenn alle Elemente von D positiv sind, d.h. A positiv
+	 * definit ist
+	 */
+	public boolean isPositiveDefinite() {
+		pruefeStabil();
+		for (int i = 0; i < n; i++)
+			if (!(ld[CholeskyDecomposition.zeile(i) + i] > 0))
+				return false;
+		return true;
+	}
+
+	/** Liefert die Determinante von A */
+	public double determinant() {
+		pruefeStabil();
+		double det = 1;
+		for (int i = 0; i < n; i++)
+			det *= ld[CholeskyDecomposition.zeile(i) + i];
+		return det;
+	}
+
+	/**
+	 * Liefert die Loesung x von A*x = b durch Vorwaerts- und
+	 * Rueckwaertssubstitution. b wird nicht veraendert.
+	 * PARAMETER:
+	 * b: Ein Vektor der Laenge n
+	 */
+	public double[] solve(double[] b) {
+		if (b.length != n)
+			throw new IllegalArgumentException("Vektor der Laenge " + b.length
+					+ " statt " + n);
+		pruefeStabil();
+
+		double[] x = b.clone();
+		// L*y = b, L hat Einsen auf der Diagonalen
+		for (int i = 0; i < n; i++) {
+			int zi = CholeskyDecomposition.zeile(i);
+			double summe = x[i];
+			for (int j = 0; j < i; j++)
+				summe -= ld[zi + j] * x[j];
+			x[i] = summe;
+		}
+		// D*z = y
+		for (int i = 0; i < n; i++)
+			x[i] /= ld[CholeskyDecomposition.zeile(i) + i];
+		// L^T*x = z, spaltenweise, damit die Zeilen von L am Stueck laufen
+		for (int i = n - 1; i >= 0; i--) {
+			int zi = CholeskyDecomposition.zeile(i);
+			double xi = x[i];
+			for (int j = 0; j < i; j++)
+				x[j] -= ld[zi + j] * xi;
+		}
+		return x;
+	}
+
+	private void pruefeStabil() {
+		if (!stabil)
+			throw new ArithmeticException(
+					"Zerlegung ohne Pivotsuche nicht moeglich");
+	}
+}
@@ -0,0 +1,444 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * LR-Zerlegung P*A = L*R einer n x n Matrix A mit Spaltenpivotisierung, wie
+ * in Gauss.solve. Die Zerlegung wird einmal berechnet (O(n^3)) und kann dann
+ * fuer beliebig viele rechte Seiten verwendet werden (je O(n^2)).
+ *
+ * L (ohne die Einsen auf der Diagonalen) und R liegen zusammen in einem
+ * Feld der Laenge n*n, zeilenweise abgelegt: das Element (i, j) steht an der
+ * Stelle i*n + j. pivot[i] ist die Zeile von A, die nach den Vertauschungen
+ * in Zeile i steht.
+ *
+ * Zerlegt wird blockweise ("right-looking"), damit grosse Matrizen nicht fuer
+ * jede Pivotspalte einmal ganz durch den Cache laufen: fuer je blockgroesse
+ * Spalten (Standard: BLOCKGROESSE) wird zuerst der Streifen darunter zerlegt
+ * (mit Pivotsuche), dann der Block rechts davon mit L aus dem Streifen
+ * aufgeloest, und schliesslich die restliche Matrix in Kacheln auf einmal
+ * aktualisiert. Jedes Element erhaelt dabei dieselben Rechenschritte in
+ * derselben Reihenfolge wie bei spaltenweiser Elimination; das Ergebnis
+ * haengt also nicht von der Blockgroesse ab (bis auf das Vorzeichen von
+ * Nullen, da Faktoren 0 nur in Vierergruppen uebersprungen werden).
+ *
+ * Die Elimination der Zeilen im Streifen, die Spalten der Blockzeile, die
+ * Zeilen der restlichen Matrix und die Pivotsuche werden mit Fork-Join-Tasks
+ * von mindestens koernung Rechenschritten (Standard: KOERNUNG) auf alle Kerne
+ * verteilt. Da jeder Task andere Elemente bearbeitet und bei der Pivotsuche
+ * gleich grosse Betraege immer zugunsten der ersten Zeile entschieden werden,
+ * ist das Ergebnis unabhaengig von der Anzahl der Threads und von koernung.
+ */
+public class LUDecomposition {
+
+	/** Standardwert fuer die Anzahl der Spalten, die zusammen zerlegt werden */
+	public static final int BLOCKGROESSE = 64;
+
+	/**
+	 * Standardwert fuer die Mindestanzahl an Rechenschritten
+	 * (Multiplikationen bzw. verglichenen Elementen bei der Pivotsuche) pro
+	 * Fork-Join-Task
+	 */
+	public static final int KOERNUNG = 1 << 16;
+
+	/* Breite der Kacheln bei der Aktualisierung der restlichen Matrix */
+	private static final int KACHEL = 256;
+
+	private final int n;
+
+	/* Mindestanzahl an Rechenschritten pro Fork-Join-Task */
+	private final int koernung;
+
+	/* L unterhalb und R ab der Diagonalen, zeilenweise */
+	private final double[] lu;
+
+	private final int[] pivot;
+
+	/* Vorzeichen der Permutation, fuer die Determinante */
+	private int vorzeichen = 1;
+
+	private boolean singulaer = false;
+
+	/**
+	 * Zerlegt die Matrix A. A wird dabei nicht veraendert.
+	 * PARAMETER:
+	 * A: Eine Matrix der Groesse n x n
+	 */
+	public LUDecomposition(double[][] A) {
+		this(A, BLOCKGROESSE, KOERNUNG);
+	}
+
+	/**
+	 * Zerlegt die Matrix A in Bloecken von blockgroesse Spalten (1:
+	 * spaltenweise) mit Fork-Join-Tasks von mindestens koernung
+	 * Rechenschritten (Integer.MAX_VALUE: sequentiell). A wird dabei nicht
+	 * veraendert.
+	 */
+	public LUDecomposition(double[][] A, int blockgroesse, int koernung) {
+		this(A.length, zeilenweise(A), blockgroesse, koernung);
+	}
+
+	/**
+	 * Zerlegt die zeilenweise in a abgelegte n x n Matrix. Die Zerlegung wird
+	 * ohne Kopie in a gespeichert, d.h. a wird ueberschrieben.
+	 */
+	public LUDecomposition(int n, double[] a) {
+		this(n, a, BLOCKGROESSE, KOERNUNG);
+	}
+
+	/**
+	 * Zerlegt die zeilenweise in a abgelegte n x n Matrix in Bloecken von
+	 * blockgroesse Spalten mit Fork-Join-Tasks von mindestens koernung
+	 * Rechenschritten, a wird ueberschrieben
+	 */
+	public LUDecomposition(int n, double[] a, int blockgroesse, int koernung) {
+		if (a.length != n * n)
+			throw new IllegalArgumentException("Feld der Laenge " + a.length
+					+ " ist keine " + n + " x " + n + " Matrix");
+		this.n = n;
+		this.koernung = Math.max(1, koernung);
+		this.lu = a;
+		this.pivot = new int[n];
+		for (int i = 0; i < n; i++)
+			pivot[i] = i;
+
+		int nb = Math.max(1, blockgroesse);
+		for (int kb = 0; kb < n; kb += nb) {
+			int ende = Math.min(kb + nb, n);
+			zerlegeStreifen(kb, ende);
+			loeseBlockzeile(kb, ende);
+			aktualisiereRest(kb, ende);
+		}
+	}
+
+	/*
+	 * zerlegt die Spalten [kb, ende) ab der Zeile kb mit Pivotsuche; nur
+	 * diese Spalten werden eliminiert, die Zeilen aber ganz vertauscht
+	 */
+	private void zerlegeStreifen(int kb, final int ende) {
+		final double[] a = lu;
+		for (int k = kb; k < ende; k++) {
+			//# Pivotelement in Spalte k suchen
+			int j = k;
+			int s = (n - k - 1 <= koernung) ? suchePivot(k, k + 1, n)
+					: ForkJoinPool.commonPool().invoke(
+							new Pivotsuche(k, k + 1, n));
+			if (s >= 0 && Math.abs(a[s * n + k]) > Math.abs(a[k * n + k]))
+				j = s;
+			if (j != k)
+				vertausche(k, j);
+
+			final double pivotElement = a[k * n + k];
+			if (pivotElement == 0) {
+				singulaer = true;
+				continue;
+			}
+
+			//# Eliminationsschritt, die Faktoren werden zu L
+			final int kk = k;
+			parallel(k + 1, n, ende - k, (von, bis) -> {
+				for (int z = von; z < bis; z++) {
+					double l = a[z * n + kk] / pivotElement;
+					a[z * n + kk] = l;
+					if (l == 0)
+						continue;
+					for (int i = kk + 1; i < ende; i++)
+						a[z * n + i] -= l * a[kk * n + i];
+				}
+			});
+		}
+	}
+
+	/*
+	 * Liefert die erste Zeile aus [von, bis) mit dem betragsgroessten
+	 * Element in Spalte k, oder -1, wenn es keine gibt (z.B. nur NaN)
+	 */
+	private int suchePivot(int k, int von, int bis) {
+		int j = -1;
+		double alpha = -1;
+		for (int s = von; s < bis; s++) {
+			if (Math.abs(lu[s * n + k]) > alpha) {
+				alpha = Math.abs(lu[s * n + k]);
+				j = s;
+			}
+		}
+		return j;
+	}
+
+	/*
+	 * loest L11 * R12 = A12 fuer die Zeilen [kb, ende) rechts vom Streifen,
+	 * L11 ist das untere Dreieck des Streifens. Die Spalten sind voneinander
+	 * unabhaengig.
+	 */
+	private void loeseBlockzeile(final int kb, final int ende) {
+		final double[] a = lu;
+		long aufwand = (long) (ende - kb) * (ende - kb) / 2;
+		parallel(ende, n, aufwand, (von, bis) -> {
+			for (int k = kb; k < ende; k++) {
+				for (int s = k + 1; s < ende; s++) {
+					double l = a[s * n + k];
+					if (l == 0)
+						continue;
+					for (int i = von; i < bis; i++)
+						a[s * n + i] -= l * a[k * n + i];
+				}
+			}
+		});
+	}
+
+	/*
+	 * A22 -= L21 * R12 fuer die Zeilen und Spalten ab ende. Die Zeilen
+	 * werden auf Fork-Join-Tasks verteilt, siehe aktualisiereZeilen.
+	 */
+	private void aktualisiereRest(final int kb, final int ende) {
+		long aufwand = (long) (n - ende) * (ende - kb);
+		parallel(ende, n, aufwand,
+				(von, bis) -> aktualisiereZeilen(kb, ende, von, bis));
+	}
+
+	/*
+	 * A22 -= L21 * R12 fuer die Zeilen [von, bis), in Kacheln von KACHEL
+	 * Spalten, damit die Zeilen von R12 im Cache bleiben. Je vier Zeilen von
+	 * R12 werden in einem Durchlauf abgezogen; die Subtraktionen bleiben
+	 * dabei in derselben Reihenfolge.
+	 */
+	private void aktualisiereZeilen(int kb, int ende, int von, int bis) {
+		double[] a = lu;
+		for (int jj = ende; jj < n; jj += KACHEL) {
+			int jEnde = Math.min(jj + KACHEL, n);
+			for (int s = von; s < bis; s++) {
+				int zeile = s * n;
+				int k = kb;
+				for (; k + 3 < ende; k += 4) {
+					double l0 = a[zeile + k];
+					double l1 = a[zeile + k + 1];
+					double l2 = a[zeile + k + 2];
+					double l3 = a[zeile + k + 3];
+					if (l0 == 0 && l1 == 0 && l2 == 0 && l3 == 0)
+						continue;
+					int p0 = k * n, p1 = p0 + n, p2 = p1 + n, p3 = p2 + n;
+					for (int i = jj; i < jEnde; i++) {
+						double t = a[zeile + i];
+						t -= l0 * a[p0 + i];
+						t -= l1 * a[p1 + i];
+						t -= l2 * a[p2 + i];
+						t -= l3 * a[p3 + i];
+						a[zeile + i] = t;
+					}
+				}
+				for (; k < ende; k++) {
+					double l = a[zeile + k];
+					if (l == 0)
+						continue;
+					int pivotZeile = k * n;
+					for (int i = jj; i < jEnde; i++)
+						a[zeile + i] -= l * a[pivotZeile + i];
+				}
+			}
+		}
+	}
+
+	/* Teilaufgabe auf einem Bereich [von, bis) von Zeilen oder Spalten */
+	private interface Bereich {
+		void bearbeite(int von, int bis);
+	}
+
+	/*
+	 * bearbeitet [von, bis) mit aufgabe, bei mehr als koernung Rechenschritten
+	 * (aufwand pro Index) in Fork-Join-Tasks
+	 */
+	private void parallel(int von, int bis, long aufwand, Bereich aufgabe) {
+		long teil = Math.max(1, koernung / Math.max(1, aufwand));
+		if (bis - von <= teil)
+			aufgabe.bearbeite(von, bis);
+		else
+			ForkJoinPool.commonPool().invoke(
+					new Teilung(von, bis, (int) teil, aufgabe));
+	}
+
+	/* teilt [von, bis) in der Mitte, bis hoechstens teil Indizes uebrig sind */
+	private static final class Teilung extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int von, bis, teil;
+		private final Bereich aufgabe;
+
+		Teilung(int von, int bis, int teil, Bereich aufgabe) {
+			this.von = von;
+			this.bis = bis;
+			this.teil = teil;
+			this.aufgabe = aufgabe;
+		}
+
+		protected void compute() {
+			if (bis - von <= teil) {
+				aufgabe.bearbeite(von, bis);
+				return;
+			}
+			int mitte = (von + bis) >>> 1;
+			invokeAll(new Teilung(von, mitte, teil, aufgabe), new Teilung(
+					mitte, bis, teil, aufgabe));
+		}
+	}
+
+	/*
+	 * Pivotsuche in Spalte k auf [von, bis) in Fork-Join-Tasks; bei gleichem
+	 * Betrag gewinnt wie bei suchePivot die erste Zeile
+	 */
+	private final class Pivotsuche extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+		private final int k, von, bis;
+
+		Pivotsuche(int k, int von, int bis) {
+			this.k = k;
+			this.von = von;
+			this.bis = bis;
+		}
+
+		protected Integer compute() {
+			if (bis - von <= koernung)
+				return suchePivot(k, von, bis);
+			int mitte = (von + bis) >>> 1;
+			Pivotsuche rechts = new Pivotsuche(k, mitte, bis);
+			rechts.fork();
+			int l = new Pivotsuche(k, von, mitte).compute();
+			int r = rechts.join();
+			if (l < 0 || r >= 0
+					&& Math.abs(lu[r * n + k]) > Math.abs(lu[l * n + k]))
+				return r;
+			return l;
+		}
+	}
+
+	/** Liefert die Groesse n der Matrix */
+	public int getN() {
+		return n;
+	}
+
+	/** Liefert die Zeilenvertauschungen: Zeile i von P*A ist Zeile pivot[i] von A */
+	public int[] getPivot() {
+		return pivot.clone();
+	}
+
+	/** Liefert true, wenn ein Pivotelement 0 war, d.h. A singulaer ist */
+	public boolean isSingular() {
+		return singulaer;
+	}
+
+	/** Liefert die Determinante von A */
+	public double determinant() {
+		double det = vorzeichen;
+		for (int i = 0; i < n; i++)
+			det *= lu[i * n + i];
+		return det;
+	}
+
+	/**
+	 * Liefert die Loesung x von A*x = b durch Vorwaerts- und
+	 * Rueckwaertssubstitution. b wird nicht veraendert.
+	 * PARAMETER:
+	 * b: Ein Vektor der Laenge n
+	 */
+	public double[] solve(double[] b) {
+		if (b.length != n)
+			throw new IllegalArgumentException("Vektor der Laenge " + b.length
+					+ " statt " + n);
+		pruefeRegulaer();
+
+		double[] x = new double[n];
+		for (int i = 0; i < n; i++)
+			x[i] = b[pivot[i]];
+
+		// L*y = P*b, L hat Einsen auf der Diagonalen
+		for (int i = 0; i < n; i++) {
+			double summe = x[i];
+			for (int j = 0; j < i; j++)
+				summe -= lu[i * n + j] * x[j];
+			x[i] = summe;
+		}
+		// R*x = y
+		for (int i = n - 1; i >= 0; i--) {
+			double summe = x[i];
+			for (int j = i + 1; j < n; j++)
+				summe -= lu[i * n + j] * x[j];
+			x[i] = summe / lu[i * n + i];
+		}
+		return x;
+	}
+
+	/**
+	 * Liefert die Loesung X von A*X = B fuer k rechte Seiten auf einmal. B
+	 * wird nicht veraendert.
+	 * PARAMETER:
+	 * B: Eine Matrix der Groesse n x k, jede Spalte ist eine rechte Seite
+	 */
+	public double[][] solve(double[][] B) {
+		if (B.length != n)
+			throw new IllegalArgumentException("Matrix mit " + B.length
+					+ " statt " + n + " Zeilen");
+		pruefeRegulaer();
+		int k = (n == 0) ? 0 : B[0].length;
+
+		/* X zeilenweise, damit die innersten Schleifen ueber k laufen */
+		double[] x = new double[n * k];
+		for (int i = 0; i < n; i++) {
+			if (B[pivot[i]].length != k)
+				throw new IllegalArgumentException("Zeilen verschiedener Laenge");
+			System.arraycopy(B[pivot[i]], 0, x, i * k, k);
+		}
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < i; j++) {
+				double l = lu[i * n + j];
+				if (l != 0)
+					for (int c = 0; c < k; c++)
+						x[i * k + c] -= l * x[j * k + c];
+			}
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			for (int j = i + 1; j < n; j++) {
+				double r = lu[i * n + j];
+				if (r != 0)
+					for (int c = 0; c < k; c++)
+						x[i * k + c] -= r * x[j * k + c];
+			}
+			double d = lu[i * n + i];
+			for (int c = 0; c < k; c++)
+				x[i * k + c] /= d;
+		}
+
+		double[][] X = new double[n][k];
+		for (int i = 0; i < n; i++)
+			System.arraycopy(x, i * k, X[i], 0, k);
+		return X;
+	}
+
+	private void pruefeRegulaer() {
+		if (singulaer)
+			throw new ArithmeticException("Matrix ist singulaer");
+	}
+
+	/* vertauscht die Zeilen k und j der Zerlegung (mit dem Teil von L) */
+	private void vertausche(int k, int j) {
+		for (int i = 0; i < n; i++) {
+			double t = lu[k * n + i];
+			lu[k * n + i] = lu[j * n + i];
+			lu[j * n + i] = t;
+		}
+		int t = pivot[k];
+		pivot[k] = pivot[j];
+		pivot[j] = t;
+		vorzeichen = -vorzeichen;
+	}
+
+	/* kopiert die quadratische Matrix A zeilenweise in ein neues Feld */
+	static double[] zeilenweise(double[][] A) {
+		int n = A.length;
+		double[] a = new double[n * n];
+		for (int i = 0; i < n; i++) {
+			if (A[i].length != n)
+				throw new IllegalArgumentException("Matrix ist nicht quadratisch");
+			System.arraycopy(A[i], 0, a, i * n, n);
+		}
+		return a;
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * Bestimmt wie Gauss.solveSing einen Vektor p != 0 mit A*p = 0 fuer eine
+ * singulaere n x n Matrix A, aber ohne Kopien und in einem Durchgang:
+ *
+ * Die Gauss-Elimination mit Spaltenpivotisierung laeuft direkt auf der
+ * zeilenweise abgelegten Matrix (Element (i, j) an der Stelle i*n + j) und
+ * bricht an der ersten Spalte r ab, in der alle moeglichen Pivotelemente
+ * betragsmaessig kleiner als toleranz (Standard: TOLERANZ) sind (siehe
+ * getRang). Die entstandene obere Dreiecksmatrix T (r x r) steht dann links
+ * oben in der Matrix, v = Spalte r daneben; Tx = -v wird dort direkt
+ * rueckwaerts aufgeloest und p = (x, 1, 0, ..., 0) gebildet. Die Faktoren von
+ * L werden nicht gespeichert.
+ *
+ * Ist A regulaer (Rang n), ist p wie bei solveSing der Nullvektor.
+ */
+public class Nullraum {
+
+	/**
+	 * Standardwert fuer die Toleranz: Pivotelemente, die betragsmaessig
+	 * kleiner sind, gelten als 0 (wie pseudoZero in Gauss.solveSing)
+	 */
+	public static final double TOLERANZ = 1E-10;
+
+	private final int n;
+
+	private final int rang;
+
+	private final double[] p;
+
+	private final double residuum;
+
+	/**
+	 * Bestimmt den Nullraumvektor der Matrix A. A wird dabei nicht
+	 * veraendert.
+	 * PARAMETER:
+	 * A: Eine singulaere Matrix der Groesse n x n
+	 */
+	public Nullraum(double[][] A) {
+		this(A, TOLERANZ);
+	}
+
+	/**
+	 * Bestimmt den Nullraumvektor der Matrix A, Pivotelemente betragsmaessig
+	 * kleiner als toleranz gelten als 0. A wird dabei nicht veraendert.
+	 */
+	public Nullraum(double[][] A, double toleranz) {
+		this(A.length, LUDecomposition.zeilenweise(A), toleranz);
+	}
+
+	/**
+	 * Bestimmt den Nullraumvektor der zeilenweise in a abgelegten n x n
+	 * Matrix. Es wird ohne Kopie in a gerechnet, d.h. a wird ueberschrieben.
+	 */
+	public Nullraum(int n, double[] a) {
+		this(n, a, TOLERANZ);
+	}
+
+	/**
+	 * wie Nullraum(n, a), Pivotelemente betragsmaessig kleiner als toleranz
+	 * gelten als 0
+	 */
+	public Nullraum(int n, double[] a, double toleranz) {
+		if (a.length != n * n)
+			throw new IllegalArgumentException("Feld der Laenge " + a.length
+					+ " ist keine " + n + " x " + n + " Matrix");
+		this.n = n;
+		this.rang = eliminiere(n, a, toleranz);
+		this.p = new double[n];
+		if (rang < n) {
+			loese(a);
+			this.residuum = residuum(a);
+		} else {
+			this.residuum = 0;
+		}
+	}
+
+	/*
+	 * Gauss-Elimination bis zur ersten Spalte ohne Pivotelement, liefert
+	 * deren Index (n, wenn es keine gibt). Spalten links von k werden nicht
+	 * mehr gelesen und daher weder vertauscht noch auf 0 gesetzt.
+	 */
+	private static int eliminiere(int n, double[] a, double toleranz) {
+		for (int k = 0; k < n; k++) {
+			//# Pivotelement in Spalte k suchen
+			int j = k;
+			double alpha = Math.abs(a[k * n + k]);
+			for (int s = k + 1; s < n; s++) {
+				if (Math.abs(a[s * n + k]) > alpha) {
+					alpha = Math.abs(a[s * n + k]);
+					j = s;
+				}
+			}
+			if (!(alpha >= toleranz))
+				return k;
+
+			if (j != k) {
+				for (int i = k; i < n; i++) {
+					double t = a[k * n + i];
+					a[k * n + i] = a[j * n + i];
+					a[j * n + i] = t;
+				}
+			}
+
+			//# Eliminationsschritt
+			double pivotElement = a[k * n + k];
+			for (int s = k + 1; s < n; s++) {
+				double l = a[s * n + k] / pivotElement;
+				if (l == 0)
+					continue;
+				for (int i = k + 1; i < n; i++)
+					a[s * n + i] -= l * a[k * n + i];
+			}
+		}
+		return n;
+	}
+
+	/* Tx = -v auf dem Block links oben, p = (x, 1, 0, ..., 0) */
+	private void loese(double[] a) {
+		int r = rang;
+		p[r] = 1;
+		for (int i = r - 1; i >= 0; i--) {
+			double x = -a[i * n + r];
+			for (int j = i + 1; j < r; j++)
+				x -= a[i * n + j] * p[j];
+			p[i] = x / a[i * n + i];
+		}
+	}
+
+	/*
+	 * Maximumnorm von R*p, R die umgeformte Matrix: die Zeilen unter rang
+	 * sind der nicht eliminierte Rest, in dem nur Spalte rang zaehlt
+	 */
+	private double residuum(double[] a) {
+		int r = rang;
+		double max = 0;
+		for (int i = 0; i < r; i++) {
+			double s = 0;
+			for (int j = i; j <= r; j++)
+				s += a[i * n + j] * p[j];
+			max = Math.max(max, Math.abs(s));
+		}
+		for (int i = r; i < n; i++)
+			max = Math.max(max, Math.abs(a[i * n + r]));
+		return max;
+	}
+
+	/** Liefert die Groesse n der Matrix */
+	public int getN() {
+		return n;
+	}
+
+	/**
+	 * Liefert die Anzahl r der Pivotelemente vor dem Abbruch. Sind die
+	 * ersten r Spalten von A linear unabhaengig (wie bei PageRank), ist das
+	 * der numerische Rang von A; sonst ist r kleiner.
+	 */
+	public int getRang() {
+		return rang;
+	}
+
+	/**
+	 * Liefert die Maximumnorm des Residuums R*p fuer die eliminierte Matrix R.
+	 * Da R aus A durch regulaere Zeilenumformungen entsteht, ist A*p = 0
+	 * genau dann, wenn R*p = 0 ist.
+	 */
+	public double getResiduum() {
+		return residuum;
+	}
+
+	/**
+	 * Liefert den Vektor p mit A*p = 0 und p[getRang()] = 1, bzw. den
+	 * Nullvektor, wenn A regulaer ist. Das Feld wird nicht kopiert.
+	 */
+	public double[] getVektor() {
+		return p;
+	}
+}
@@ -12,7 +12,21 @@ public class PageRank {
 	 */
 	public static double[][] buildProbabilityMatrix(int[][] L, double rho) {
 		int n = L.length;
+		double[] a = buildProbabilityMatrix(L, rho, new double[n * n]);
 		double[][] A = new double[n][n];
+		for(int i = 0; i < n; i++) {
+			System.arraycopy(a, i * n, A[i], 0, n);
+		}
+		return A;
+	}
+
+	/**
+	 * Wie buildProbabilityMatrix, schreibt A~ aber zeilenweise in das Feld a
+	 * der Laenge n*n (Element (i, j) an der Stelle i*n + j) und liefert a.
+	 * a muss mit 0 gefuellt sein.
+	 */
+	static double[] buildProbabilityMatrix(int[][] L, double rho, double[] a) {
+		int n = L.length;
 		double[] linkCounts = new double[n];
 		
 		//Lij = 1 if j links to i
@@ -31,14 +45,14 @@ public class PageRank {
 			for(int j = 0; j < n; j++) {
 				//aij is only 1/sum if j links to i, so if Lij == 1
 				if(L[i][j] == 1) {
-					A[i][j] = ((1 - rho) * (1.0/linkCounts[j]));
+					a[i * n + j] = ((1 - rho) * (1.0/linkCounts[j]));
 				}
 				//we still add p/n, since that isnt affected by aij
-				A[i][j] += rho/nD;
+				a[i * n + j] += rho/nD;
 			}
 		}
 		
-		return A;
+		return a;
 	}
 
 	/**
@@ -54,15 +68,13 @@ public class PageRank {
 	 */
 	public static double[] rank(int[][] L, double rho) {
 		int n = L.length;
-		double[][] probMatrix = buildProbabilityMatrix(L, rho);
-		double[] p = new double[n];
-		
-		//since we want the solution of (~A - I)p = 0, deduct I from ~A
+		//build ~A - I flat and solve (~A - I)p = 0 in place, see Nullraum
+		double[] probMatrix = buildProbabilityMatrix(L, rho, new double[n * n]);
 		for(int i = 0; i < n; i++) {
-			probMatrix[i][i] -= 1.0;
+			probMatrix[i * n + i] -= 1.0;
 		}
 		
-		p = Gauss.solveSing(probMatrix);
+		double[] p = new Nullraum(n, probMatrix).getVektor();
 		
 		//normalize p
 		double lamba = 0;
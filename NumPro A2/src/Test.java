@@ -19,6 +19,8 @@ public class Test {
 						+ "Es dient einzig und allein als Rahmen zurleichteren Implementierung eigener Tests!");
 
 		boolean test_gauss = true;
+		boolean test_lu = true;
+		boolean test_cholesky = true;
 		boolean test_pagerank = true;
 		boolean test_crawler = true;
 
@@ -39,10 +41,12 @@ public class Test {
 			System.out.println("-----------------------------------------");
 			System.out
 					.println("primitiver und unvollstaendiger Test der Klasse Gauss");
+			/* die Rechnung wird hier mit ausgegeben */
+			GaussBeobachter ausgabe = new GaussAusgabe(System.out);
 
 			System.out
 					.println("  primitiver und unvollstaendiger Test der Methode backSubst");
-			x = Gauss.backSubst(C, b);
+			x = Gauss.backSubst(C, b, ausgabe);
 			if (Util.vectorCompare(x, xC)) {
 				System.out.println("    Richtiges Ergebnis");
 			} else {
@@ -54,7 +58,7 @@ public class Test {
 
 			System.out
 					.println("  primitiver und unvollstaendiger Test der Methode solve");
-			x = Gauss.solve(C, b);
+			x = Gauss.solve(C, b, ausgabe);
 			if (Util.vectorCompare(x, xC)) {
 				System.out.println("    Richtiges Ergebnis");
 			} else {
@@ -66,7 +70,8 @@ public class Test {
 
 			System.out
 					.println("  primitiver und unvollstaendiger Test der Methode solveSing");
-			x = Gauss.solveSing(A);
+			double A0[][] = { A[0].clone(), A[1].clone() };
+			x = Gauss.solveSing(A, ausgabe);
 			double lambda = xA[0] / x[0];
 			for (int i = 0; i < x.length; i++) {
 				x[i] *= lambda;
@@ -79,6 +84,270 @@ public class Test {
 				System.out.println("            richtiges Ergebnis:");
 				Util.printVector(xA);
 			}
+			System.out.println("  solveSing veraendert A nicht");
+			if (java.util.Arrays.deepEquals(A, A0)) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: A wurde veraendert");
+			}
+
+			System.out.println("  solveSing mit Rang n-1");
+			double R1[][] = { { 1, 2, 3 }, { 2, 5, 7 }, { 3, 7, 10 } };
+			double xR1[] = { -1, -1, 1 };
+			x = Gauss.solveSing(R1);
+			if (Util.vectorCompare(x, xR1)) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: falsches Ergebnis:");
+				Util.printVector(x);
+				System.out.println("            richtiges Ergebnis:");
+				Util.printVector(xR1);
+			}
+
+			System.out
+					.println("  primitiver und unvollstaendiger Test der Klasse Nullraum");
+			double S[][] = { { 1, 2, 3 }, { 2, 5, 7 }, { 3, 7, 10 } };
+			double xS[] = { -1, -1, 1 };
+			Nullraum nullraum = new Nullraum(S);
+			x = nullraum.getVektor();
+			if (nullraum.getRang() == 2 && nullraum.getResiduum() < 1E-12
+					&& Util.vectorCompare(x, xS)
+					&& new Nullraum(A).getRang() == 1
+					&& new Nullraum(C).getRang() == 4
+					&& new Nullraum(C, 1.5).getRang() == 0) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: falsches Ergebnis, Rang "
+						+ nullraum.getRang() + ", Residuum "
+						+ nullraum.getResiduum() + ":");
+				Util.printVector(x);
+				System.out.println("            richtiges Ergebnis:");
+				Util.printVector(xS);
+			}
+
+			System.out
+					.println("  ohne Beobachter gibt Gauss nichts aus");
+			java.io.PrintStream out = System.out;
+			java.io.ByteArrayOutputStream puffer = new java.io.ByteArrayOutputStream();
+			System.setOut(new java.io.PrintStream(puffer));
+			Gauss.solve(C, b);
+			Gauss.solveSing(A);
+			System.setOut(out);
+			if (puffer.size() == 0) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: " + puffer.size()
+						+ " Zeichen ausgegeben");
+			}
+		}
+
+		/******************************/
+		/* Test der Klasse LUDecomposition */
+		/******************************/
+		if (test_lu) {
+			System.out.println("-----------------------------------------");
+			System.out
+					.println("Test der Klasse LUDecomposition");
+
+			double C0[][] = new double[C.length][];
+			for (int i = 0; i < C.length; i++)
+				C0[i] = C[i].clone();
+			double b0[] = b.clone();
+			Gauss.solve(C, b);
+			System.out
+					.println("  Gauss.solve veraendert A und b nicht");
+			if (Util.matrixCompare(C, C0) && Util.vectorCompare(b, b0)) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: A oder b wurde veraendert");
+			}
+
+			System.out
+					.println("  solve mit einer rechten Seite");
+			LUDecomposition lu = new LUDecomposition(C);
+			x = lu.solve(b);
+			if (Util.vectorCompare(x, xC) && Util.matrixCompare(C, C0)) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: falsches Ergebnis:");
+				Util.printVector(x);
+				System.out.println("            richtiges Ergebnis:");
+				Util.printVector(xC);
+			}
+
+			/*
+			 * zufaellige Matrix mit mehreren rechten Seiten: Residuum und
+			 * Vergleich mit Gauss.solve und den einzelnen Loesungen
+			 */
+			System.out
+					.println("  solve mit n x k rechten Seiten (n = 60, k = 5)");
+			java.util.Random random = new java.util.Random(42);
+			int n = 60, k = 5;
+			double R[][] = new double[n][n];
+			double B[][] = new double[n][k];
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++)
+					R[i][j] = random.nextDouble() - 0.5;
+				for (int j = 0; j < k; j++)
+					B[i][j] = random.nextDouble() - 0.5;
+			}
+			lu = new LUDecomposition(R);
+			double X[][] = lu.solve(B);
+			double fehler = 0;
+			for (int j = 0; j < k; j++) {
+				double bj[] = new double[n];
+				double xj[] = new double[n];
+				for (int i = 0; i < n; i++) {
+					bj[i] = B[i][j];
+					xj[i] = X[i][j];
+				}
+				double r[] = Gauss.matrixVectorMult(R, xj);
+				double g[] = Gauss.solve(R, bj);
+				double e[] = lu.solve(bj);
+				for (int i = 0; i < n; i++) {
+					fehler = Math.max(fehler, Math.abs(r[i] - bj[i]));
+					fehler = Math.max(fehler, Math.abs(g[i] - xj[i]));
+					fehler = Math.max(fehler, Math.abs(e[i] - xj[i]));
+				}
+			}
+			if (fehler < 1E-10) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: Abweichung " + fehler);
+			}
+
+			/*
+			 * die blockweise Zerlegung muss bitweise dasselbe liefern wie die
+			 * spaltenweise (blockgroesse 1)
+			 */
+			System.out
+					.println("  blockweise gegen spaltenweise Zerlegung (n = 300)");
+			n = 300;
+			R = new double[n][n];
+			double r0[] = new double[n];
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++)
+					R[i][j] = random.nextDouble() - 0.5;
+				r0[i] = random.nextDouble();
+			}
+			double xb[] = new LUDecomposition(R).solve(r0);
+			double xs[] = new LUDecomposition(R, 1, LUDecomposition.KOERNUNG)
+					.solve(r0);
+			if (java.util.Arrays.equals(xb, xs)) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: Ergebnisse verschieden");
+			}
+
+			/*
+			 * das Ergebnis darf nicht von der Aufteilung auf Fork-Join-Tasks
+			 * abhaengen: koernung 1 teilt so fein wie moeglich, MAX_VALUE gar
+			 * nicht
+			 */
+			System.out
+					.println("  parallele gegen sequentielle Zerlegung (n = 300)");
+			double xp[] = new LUDecomposition(R, LUDecomposition.BLOCKGROESSE, 1)
+					.solve(r0);
+			double xq[] = new LUDecomposition(R, LUDecomposition.BLOCKGROESSE,
+					Integer.MAX_VALUE).solve(r0);
+			if (java.util.Arrays.equals(xp, xq) && java.util.Arrays.equals(xp, xb)) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: Ergebnisse verschieden");
+			}
+
+			System.out
+					.println("  singulaere Matrix wird erkannt");
+			if (new LUDecomposition(A).isSingular()) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: nicht als singulaer erkannt");
+			}
+		}
+
+		/******************************/
+		/* Test der Klassen CholeskyDecomposition und LDLDecomposition */
+		/******************************/
+		if (test_cholesky) {
+			System.out.println("-----------------------------------------");
+			System.out
+					.println("Test der Klassen CholeskyDecomposition und LDLDecomposition");
+
+			/* symmetrisch und diagonaldominant, also positiv definit */
+			java.util.Random random = new java.util.Random(7);
+			int n = 100;
+			double P[][] = new double[n][n];
+			double p0[] = new double[n];
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < i; j++)
+					P[i][j] = P[j][i] = random.nextDouble() - 0.5;
+				P[i][i] = n;
+				p0[i] = random.nextDouble();
+			}
+			double xl[] = new LUDecomposition(P).solve(p0);
+
+			System.out
+					.println("  Cholesky fuer positiv definite Matrix (n = 100)");
+			CholeskyDecomposition cholesky = new CholeskyDecomposition(P);
+			if (cholesky.isPositiveDefinite()
+					&& abstand(cholesky.solve(p0), xl) < 1E-12) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: falsches Ergebnis");
+			}
+
+			System.out
+					.println("  LDL^T fuer positiv definite Matrix (n = 100)");
+			LDLDecomposition ldl = new LDLDecomposition(P);
+			if (ldl.isStable() && ldl.isPositiveDefinite()
+					&& abstand(ldl.solve(p0), xl) < 1E-12) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: falsches Ergebnis");
+			}
+
+			System.out
+					.println("  indefinite Matrix: kein Cholesky, aber LDL^T");
+			double I[][] = { { 1, 2 }, { 2, 1 } };
+			double bI[] = { 3, 3 };
+			double xI[] = { 1, 1 };
+			ldl = new LDLDecomposition(I);
+			if (!new CholeskyDecomposition(I).isPositiveDefinite()
+					&& ldl.isStable() && !ldl.isPositiveDefinite()
+					&& Util.vectorCompare(ldl.solve(bI), xI)
+					&& Util.vectorCompare(Gauss.solveSym(I, bI), xI)) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: falsches Ergebnis");
+			}
+
+			System.out
+					.println("  solveSym weicht auf LU aus (0 auf der Diagonalen, nicht symmetrisch)");
+			double N[][] = { { 0, 1 }, { 1, 0 } };
+			double bN[] = { 2, 3 };
+			double xN[] = { 3, 2 };
+			if (!new LDLDecomposition(N).isStable()
+					&& Util.vectorCompare(Gauss.solveSym(N, bN), xN)
+					&& Util.vectorCompare(Gauss.solveSym(C, b), xC)) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: falsches Ergebnis");
+			}
+
+			System.out.println("  gepacktes Dreieck grosser Matrizen");
+			boolean abgelehnt = false;
+			try {
+				CholeskyDecomposition.laenge(65536);
+			} catch (IllegalArgumentException e) {
+				abgelehnt = true;
+			}
+			if (abgelehnt
+					&& CholeskyDecomposition.laenge(65535) == 2147450880
+					&& CholeskyDecomposition.zeile(65534) == 2147385345) {
+				System.out.println("    Richtiges Ergebnis");
+			} else {
+				System.out.println("    FEHLER: falsches Ergebnis");
+			}
 		}
 
 		/******************************/
@@ -133,4 +402,12 @@ public class Test {
 			(new GUI()).setVisible(true);
 		}
 	}
+
+	/* Maximumnorm von v - w */
+	private static double abstand(double[] v, double[] w) {
+		double max = 0;
+		for (int i = 0; i < v.length; i++)
+			max = Math.max(max, Math.abs(v[i] - w[i]));
+		return max;
+	}
 }